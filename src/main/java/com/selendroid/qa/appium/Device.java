@@ -0,0 +1,43 @@
+package com.selendroid.qa.appium;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * An Android device or emulator managed by the {@link DeviceScheduler}. The AVD name is used to
+ * boot the emulator whilst the serial is what Appium uses as the device UDID
+ *
+ * @author sanjay
+ *
+ */
+@Getter
+@ToString(of = {"avd", "serial"})
+public class Device {
+
+    private final String avd;
+
+    private final String serial;
+
+    private final int index;
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private Process process;
+
+    @Setter(AccessLevel.PACKAGE)
+    private int leaseCount;
+
+    /**
+     * Create a device from a pool entry, the entry is either the AVD name or avd@serial
+     * @param entry - the pool entry
+     * @param index - the position of the device in the pool
+     */
+    Device(String entry, int index) {
+        String[] parts = entry.trim().split("@", 2);
+        this.avd = parts[0];
+        this.serial = parts.length > 1 ? parts[1] : parts[0];
+        this.index = index;
+    }
+}
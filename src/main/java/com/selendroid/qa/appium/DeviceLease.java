@@ -0,0 +1,57 @@
+package com.selendroid.qa.appium;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lease on a booted {@link Device}, handed out by the {@link DeviceScheduler}. The lease
+ * must be released once the session running on the device is over
+ *
+ * @author sanjay
+ *
+ */
+@Getter
+@ToString(of = {"device"})
+public class DeviceLease {
+
+    private final Device device;
+
+    private final long acquiredAt;
+
+    private final DeviceScheduler scheduler;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    DeviceLease(Device device, DeviceScheduler scheduler) {
+        this.device = device;
+        this.scheduler = scheduler;
+        this.acquiredAt = System.currentTimeMillis();
+    }
+
+    /**
+     * The serial of the leased device, used as the Appium UDID
+     * @return the device serial
+     */
+    public String getSerial() {
+        return device.getSerial();
+    }
+
+    /**
+     * Each device gets its own UiAutomator2 system port so parallel sessions do not collide
+     * @return the system port for the leased device
+     */
+    public int getSystemPort() {
+        return scheduler.getSystemPortBase() + device.getIndex();
+    }
+
+    /**
+     * Give the device back to the scheduler, releasing more than once has no effect
+     */
+    public void release() {
+        if(released.compareAndSet(false, true)) {
+            scheduler.release(this);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.selendroid.qa.appium;
+
+import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.utils.WaitUtil;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.selendroid.qa.utils.PropertyUtil.get;
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
+import static com.selendroid.qa.utils.PropertyUtil.getLong;
+import static com.selendroid.qa.utils.PropertyUtil.getOrDefault;
+
+/**
+ * Owns a pool of Android emulators/devices and hands them out to worker threads. Devices are
+ * booted ahead of demand in the background, leases are served in the order workers asked for them
+ * and devices can be recycled (killed and booted again) after a number of leases.
+ *
+ * The emulator and boot check commands are {@link MessageFormat} templates where {0} is the AVD
+ * name and {1} the device serial, so any executable can stand in for the real emulator
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class DeviceScheduler {
+
+    private static final long BOOT_POLL_MILLIS = 1000;
+
+    private static final long BOOT_CHECK_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Offered once every device failed to boot, to wake the workers waiting for a device
+     */
+    private static final Device NO_DEVICE = new Device("none", -1);
+
+    private static DeviceScheduler instance;
+
+    private final List<Device> devices;
+
+    private final BlockingQueue<Device> available;
+
+    /**
+     * The devices that failed to boot and will never be offered again
+     */
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final ExecutorService bootExecutor;
+
+    private final String emulatorCommand;
+
+    private final String bootCommand;
+
+    private final String bootExpected;
+
+    private final long bootTimeoutMillis;
+
+    private final long leaseTimeoutMillis;
+
+    private final int recycleAfter;
+
+    @Getter
+    private final int systemPortBase;
+
+    /**
+     * Create a new scheduler, the devices are not booted until {@link #start()} is called
+     * @param pool - the pool entries, each one is either the AVD name or avd@serial
+     * @param emulatorCommand - the command used to boot a device
+     * @param bootCommand - the command used to check whether a device is booted, blank to skip the check
+     * @param bootExpected - the output of the boot command once the device is booted
+     * @param bootTimeoutMillis - the maximum time to wait for a device to boot
+     * @param leaseTimeoutMillis - the maximum time a worker waits for a free device
+     * @param recycleAfter - reboot a device after that many leases, 0 to never recycle
+     * @param systemPortBase - the first UiAutomator2 system port, each device adds its index
+     */
+    @Builder
+    public DeviceScheduler(List<String> pool, String emulatorCommand, String bootCommand, String bootExpected,
+                           long bootTimeoutMillis, long leaseTimeoutMillis, int recycleAfter, int systemPortBase) {
+
+        if(pool == null || pool.isEmpty()) {
+            throw new FrameworkException("Expected at least one device in the pool");
+        }
+
+        List<Device> list = new ArrayList<>();
+        for(String entry: pool) {
+            list.add(new Device(entry, list.size()));
+        }
+
+        this.devices = Collections.unmodifiableList(list);
+        this.available = new ArrayBlockingQueue<>(list.size(), true);
+        this.emulatorCommand = emulatorCommand;
+        this.bootCommand = bootCommand;
+        this.bootExpected = bootExpected;
+        this.bootTimeoutMillis = bootTimeoutMillis;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        this.recycleAfter = recycleAfter;
+        this.systemPortBase = systemPortBase;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.bootExecutor = Executors.newFixedThreadPool(list.size(), runnable -> {
+            Thread thread = new Thread(runnable, "device-boot-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the shared scheduler configured from application.properties, the device pool
+     * starts booting the first time this is called
+     * @return the shared scheduler
+     */
+    public static synchronized DeviceScheduler getInstance() {
+        if(instance == null) {
+            instance = DeviceScheduler.builder()
+                    .pool(getConfiguredPool())
+                    .emulatorCommand(getOrDefault("android.emulator.command", "emulator -avd {0}"))
+                    .bootCommand(get("android.emulator.boot.command"))
+                    .bootExpected(getOrDefault("android.emulator.boot.expected", "1"))
+                    .bootTimeoutMillis(TimeUnit.SECONDS.toMillis(getLong("android.emulator.boot.timeout", 120)))
+                    .leaseTimeoutMillis(TimeUnit.SECONDS.toMillis(getLong("android.device.lease.timeout", 300)))
+                    .recycleAfter(getInt("android.device.recycle.after", 0))
+                    .systemPortBase(getInt("android.system.port.base", 8200))
+                    .build();
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Get the device pool configured in application.properties, without booting anything
+     * @return the pool entries
+     */
+    public static List<String> getConfiguredPool() {
+        String pool = getOrDefault("android.device.pool", get("android.device.name"));
+        return Arrays.stream(pool.split(","))
+                .filter(StringUtils::isNotBlank)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Shut down the shared scheduler if it was ever started
+     */
+    public static synchronized void shutdownInstance() {
+        if(instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Boot every device of the pool in the background
+     */
+    public void start() {
+        log.info("Booting device pool {}", devices);
+        for(Device device: devices) {
+            bootExecutor.submit(() -> boot(device));
+        }
+    }
+
+    /**
+     * Lease a booted device, waiting in line behind the workers that asked before. Every worker
+     * waits once on the fair queue so it keeps its place until a device is offered. Fails as soon
+     * as every device of the pool failed to boot, as none can become available anymore
+     * @return the lease on the device
+     */
+    public DeviceLease acquire() {
+        if(failed.get() >= devices.size()) {
+            throw noDeviceCanBoot();
+        }
+
+        try {
+            Device device = available.poll(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+            if(device == null) {
+                throw new FrameworkException("No device became available within " + leaseTimeoutMillis + " ms");
+            }
+            if(device == NO_DEVICE) {
+                // hand the marker on so the next worker in line fails too
+                available.offer(NO_DEVICE);
+                throw noDeviceCanBoot();
+            }
+
+            log.info("Leased device {} to thread {}", device, Thread.currentThread().getName());
+            return new DeviceLease(device, this);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FrameworkException("Interrupted whilst waiting for a device", e);
+        }
+    }
+
+    /**
+     * Return a leased device to the pool, or recycle it if it reached its lease limit
+     * @param lease - the lease to release
+     */
+    void release(DeviceLease lease) {
+        Device device = lease.getDevice();
+        device.setLeaseCount(device.getLeaseCount() + 1);
+
+        if(recycleAfter > 0 && device.getLeaseCount() >= recycleAfter) {
+            log.info("Recycling device {} after {} leases", device, device.getLeaseCount());
+            bootExecutor.submit(() -> {
+                stop(device);
+                device.setLeaseCount(0);
+                boot(device);
+            });
+        } else {
+            log.info("Device {} returned to the pool", device);
+            available.offer(device);
+        }
+    }
+
+    /**
+     * Stop the boot threads and kill every emulator this scheduler started
+     */
+    public void shutdown() {
+        bootExecutor.shutdownNow();
+        devices.forEach(this::stop);
+        available.clear();
+    }
+
+    /**
+     * The number of devices that failed to boot and were taken out of the pool
+     * @return the number of failed devices
+     */
+    public int getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Boot a device and offer it to the pool. A device that is already online is offered straight
+     * away, and one the emulator command can't launch (no emulator on the path, a real device, an AVD
+     * already running) is offered as is. Only a device that was launched but never booted is dropped
+     * @param device - the device to boot
+     */
+    private void boot(Device device) {
+        if(isBooted(device)) {
+            log.info("Device {} is already running", device);
+            available.offer(device);
+            return;
+        }
+
+        Process process;
+        try {
+            File output = new File(System.getProperty("java.io.tmpdir"), "emulator-" + device.getSerial() + ".log");
+            process = new ProcessBuilder(command(emulatorCommand, device))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(output))
+                    .start();
+            device.setProcess(process);
+
+        } catch (IOException e) {
+            log.warn("Failed to launch device {}, using it as is", device, e);
+            available.offer(device);
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + bootTimeoutMillis;
+        while(System.currentTimeMillis() < deadline) {
+            if(isBooted(device)) {
+                log.info("Device {} booted", device);
+                available.offer(device);
+                return;
+            }
+            if(!process.isAlive()) {
+                log.warn("Emulator of device {} exited with {} before booting, using it as is", device, process.exitValue());
+                device.setProcess(null);
+                available.offer(device);
+                return;
+            }
+            if(Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            WaitUtil.pause(BOOT_POLL_MILLIS);
+        }
+
+        log.error("Device {} did not boot within {} ms, removing it from the pool", device, bootTimeoutMillis);
+        stop(device);
+        if(failed.incrementAndGet() >= devices.size()) {
+            available.offer(NO_DEVICE);
+        }
+    }
+
+    private static FrameworkException noDeviceCanBoot() {
+        return new FrameworkException("No device can become available, every device of the pool failed to boot");
+    }
+
+    private boolean isBooted(Device device) {
+        if(StringUtils.isBlank(bootCommand)) {
+            return device.getProcess() != null && device.getProcess().isAlive();
+        }
+
+        try {
+            Process process = new ProcessBuilder(command(bootCommand, device))
+                    .redirectErrorStream(true)
+                    .start();
+
+            // the output is a single line, it fits in the pipe buffer so the process can exit before it is read
+            if(!process.waitFor(BOOT_CHECK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.debug("Boot check of device {} timed out", device);
+                process.destroyForcibly();
+                return false;
+            }
+
+            String output;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = reader.lines().collect(Collectors.joining("\n")).trim();
+            }
+
+            return process.exitValue() == 0 && bootExpected.equals(output);
+
+        } catch (IOException e) {
+            log.debug("Boot check failed for device {}", device, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void stop(Device device) {
+        Process process = device.getProcess();
+        if(process != null) {
+            log.info("Stopping device {}", device);
+            process.destroy();
+            try {
+                if(!process.waitFor(BOOT_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+            device.setProcess(null);
+        }
+    }
+
+    private static List<String> command(String template, Device device) {
+        String command = MessageFormat.format(template, device.getAvd(), device.getSerial());
+        return Arrays.asList(command.trim().split("\\s+"));
+    }
+}
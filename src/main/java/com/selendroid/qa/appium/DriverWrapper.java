@@ -1,10 +1,14 @@
 package com.selendroid.qa.appium;
 
 import com.selendroid.qa.enums.PlatformType;
+import com.selendroid.qa.enums.ResetType;
 import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.utils.ScrollEngine;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
+import io.appium.java_client.remote.AndroidMobileCapabilityType;
 import io.appium.java_client.remote.IOSMobileCapabilityType;
 import io.appium.java_client.remote.MobileCapabilityType;
 import lombok.AccessLevel;
@@ -12,13 +16,27 @@ import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.http.HttpClient;
 
-import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.selendroid.qa.utils.PropertyUtil.get;
+import static com.selendroid.qa.utils.PropertyUtil.getBoolean;
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
 import static com.selendroid.qa.utils.PropertyUtil.getLong;
 
 @Log4j2
@@ -26,7 +44,46 @@ import static com.selendroid.qa.utils.PropertyUtil.getLong;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class DriverWrapper {
 
-    private static volatile AppiumDriver driver;
+    /**
+     * Each TestNG worker thread owns its own session, so parallel classes/tests never share a driver
+     */
+    private static final ThreadLocal<AppiumDriver> DRIVER = new ThreadLocal<>();
+
+    /**
+     * All the sessions currently alive across the worker threads, used to clean up at the end of the suite
+     */
+    private static final Set<AppiumDriver> ACTIVE_DRIVERS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The device lease backing each Android session, released when the session quits
+     */
+    private static final Map<AppiumDriver, DeviceLease> LEASES = new ConcurrentHashMap<>();
+
+    /**
+     * Sessions created ahead of demand when the warm pool is enabled
+     */
+    private static final BlockingQueue<AppiumDriver> WARM_SESSIONS = new LinkedBlockingQueue<>();
+
+    private static final AtomicBoolean WARM_POOL_STARTED = new AtomicBoolean();
+
+    /**
+     * Warm sessions that are queued or still being created, a waiter falls back to creating its
+     * own session as soon as there is none
+     */
+    private static final AtomicInteger WARM_PENDING = new AtomicInteger();
+
+    /**
+     * The sessions the suite still has to hand out, negative if unknown
+     */
+    private static final AtomicInteger WARM_DEMAND = new AtomicInteger(-1);
+
+    private static final long WARM_POLL_MILLIS = 500;
+
+    private static final long WARM_SHUTDOWN_SECONDS = 5;
+
+    private static volatile boolean warmPoolClosed;
+
+    private static volatile ExecutorService warmPoolExecutor;
 
     private static DesiredCapabilities getIosCapabilities(String appPath) {
         log.info("Initializing iOS capabilities for app {}", appPath);
@@ -40,35 +97,45 @@ public class DriverWrapper {
         return cap;
     }
 
-    private static DesiredCapabilities getAndroidCapabilities(String appPath) {
-        log.info("Initializing Android capabilities for app {}", appPath);
+    private static DesiredCapabilities getAndroidCapabilities(String appPath, DeviceLease lease) {
+        log.info("Initializing Android capabilities for app {} on device {}", appPath, lease.getSerial());
         DesiredCapabilities cap = new DesiredCapabilities();
         cap.setCapability(MobileCapabilityType.PLATFORM_NAME, get("android.platform.name"));
 //        cap.setCapability(MobileCapabilityType.PLATFORM_VERSION, get("android.platform.version"));
-        cap.setCapability(MobileCapabilityType.DEVICE_NAME, get("android.device.name"));
+        cap.setCapability(MobileCapabilityType.DEVICE_NAME, lease.getSerial());
+        cap.setCapability(MobileCapabilityType.UDID, lease.getSerial());
+        cap.setCapability(AndroidMobileCapabilityType.SYSTEM_PORT, lease.getSystemPort());
         cap.setCapability(MobileCapabilityType.APP, appPath);
         cap.setCapability(MobileCapabilityType.AUTOMATION_NAME, get("android.automation.name"));
         return cap;
     }
 
-    private static void initDriver(PlatformType platform) {
+    private static AppiumDriver initDriver(PlatformType platform) {
 
         String cmdAppPath = System.getProperty("app.path");
         DesiredCapabilities capabilities = null;
+        AppiumDriver driver = null;
         log.info("Initializing driver for platform {}", platform);
 
         try {
             URL appiumUrl = new URL(get("appium.driver.url"));
 
             if(PlatformType.ANDROID == platform) {
-                capabilities = getAndroidCapabilities(
-                    StringUtils.isBlank(cmdAppPath) ? get("android.app.path") : cmdAppPath);
-                driver = new AndroidDriver(appiumUrl, capabilities);
+                DeviceLease lease = DeviceScheduler.getInstance().acquire();
+                try {
+                    capabilities = getAndroidCapabilities(
+                        StringUtils.isBlank(cmdAppPath) ? get("android.app.path") : cmdAppPath, lease);
+                    driver = new AndroidDriver(appiumUrl, getHttpClientFactory(), capabilities);
+                } catch (RuntimeException e) {
+                    lease.release();
+                    throw e;
+                }
+                LEASES.put(driver, lease);
 
             } else if(PlatformType.IOS == platform) {
                 capabilities = getIosCapabilities(
                     StringUtils.isBlank(cmdAppPath) ? get("ios.app.path") : cmdAppPath);
-                driver = new IOSDriver(appiumUrl, capabilities);
+                driver = new IOSDriver(appiumUrl, getHttpClientFactory(), capabilities);
 
             } else {
                 throw new FrameworkException("Unknown platform " + platform);
@@ -81,6 +148,19 @@ public class DriverWrapper {
             throw new FrameworkException(e);
         }
         log.info("Successfully initialized driver {} for platform {}", driver, platform);
+        return driver;
+    }
+
+    /**
+     * Get the factory of the HTTP clients that send the driver commands, the sessions share the
+     * {@link PooledHttpClientFactory} unless appium.http.pool.shared is false. The factory is wrapped
+     * in a {@link ProfilingHttpClientFactory} when appium.http.profile is set
+     * @return the HTTP client factory
+     */
+    static HttpClient.Factory getHttpClientFactory() {
+        HttpClient.Factory factory = getBoolean("appium.http.pool.shared", true) ?
+                PooledHttpClientFactory.getInstance() : HttpClient.Factory.createDefault();
+        return getBoolean("appium.http.profile", false) ? new ProfilingHttpClientFactory(factory) : factory;
     }
 
     /**
@@ -93,61 +173,294 @@ public class DriverWrapper {
     }
 
     /**
-     * Get the Appium driver. We need to add support for parallel execution and multiple drivers
+     * The number of sessions that can run side by side: one per device of the Android pool,
+     * a single simulator on iOS
+     * @return the number of parallel sessions
+     */
+    public static int getParallelism() {
+        return PlatformType.ANDROID == resolvePlatform() ? Math.max(1, DeviceScheduler.getConfiguredPool().size()) : 1;
+    }
+
+    /**
+     * Resolve the platform from the command line, falling back to the default platform
+     * @return the platform to run against
+     */
+    private static PlatformType resolvePlatform() {
+        String cmdPlatform = System.getProperty("platform.name");
+
+        if(StringUtils.isBlank(cmdPlatform)) {
+            return getActivePlatform();
+        } else {
+            return PlatformType.fromString(cmdPlatform);
+        }
+    }
+
+    private static AppiumDriver createSession() {
+        AppiumDriver driver = initDriver(resolvePlatform());
+        ACTIVE_DRIVERS.add(driver);
+        return driver;
+    }
+
+    /**
+     * Get the Appium driver for the current thread, a new session is created the first time
+     * a thread asks for one. When the warm pool is enabled, a pre-created session is handed
+     * out instead
      * @return the initialized Appium driver
      */
     public static AppiumDriver getDriver() {
+        AppiumDriver driver = DRIVER.get();
+
         if(driver == null) {
-            synchronized(DriverWrapper.class) {
 
-                if(driver == null) {
+            if(WARM_POOL_STARTED.get()) {
+                WARM_DEMAND.decrementAndGet();
+                driver = takeWarmSession();
+            }
+
+            if(driver == null) {
+                driver = createSession();
+            }
+
+            DRIVER.set(driver);
+        }
+
+        return driver;
+    }
+
+    /**
+     * Quit the appium driver of the current thread and close any windows. Sessions
+     * owned by other threads are left untouched. With the warm pool enabled a
+     * replacement session is created in the background while the suite still needs sessions
+     */
+    public static void quitDriver() {
+        AppiumDriver driver = DRIVER.get();
+        if(driver != null) {
+            DRIVER.remove();
+            quit(driver);
+            topUpWarmPool(1);
+        }
+    }
+
+    /**
+     * Start creating appium.session.pool.size sessions in the background so the first tests
+     * do not pay for the session creation. Does nothing when the pool size is 0 or the pool
+     * was already started
+     * @param expectedSessions - the number of sessions the suite will ask for e.g. one per journey
+     *                         class, the pool never creates more. Negative if unknown
+     */
+    public static void warmUp(int expectedSessions) {
+        int size = getInt("appium.session.pool.size", 0);
+        if(expectedSessions >= 0) {
+            size = Math.min(size, expectedSessions);
+        }
 
-                    String cmdPlatform = System.getProperty("platform.name");
+        if(size <= 0 || !WARM_POOL_STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        WARM_DEMAND.set(expectedSessions);
 
-                    PlatformType platform = null;
+        log.info("Warming up {} Appium sessions", size);
+        AtomicInteger counter = new AtomicInteger();
+        warmPoolExecutor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "session-warmup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        topUpWarmPool(size);
+    }
 
-                    if(StringUtils.isBlank(cmdPlatform)) {
-                        platform = getActivePlatform();
+    /**
+     * Check whether the session warm pool is running
+     * @return true if sessions are created ahead of demand
+     */
+    public static boolean isWarmPoolEnabled() {
+        return WARM_POOL_STARTED.get();
+    }
+
+    private static void topUpWarmPool(int count) {
+        ExecutorService executor = warmPoolExecutor;
+        if(executor == null || executor.isShutdown() || warmPoolClosed) {
+            return;
+        }
+
+        for(int i = 0; i < count; i++) {
+            int demand = WARM_DEMAND.get();
+            if(demand >= 0 && WARM_PENDING.get() >= demand) {
+                log.debug("No more sessions needed, not topping up the warm pool");
+                return;
+            }
+
+            WARM_PENDING.incrementAndGet();
+            executor.submit(() -> {
+                try {
+                    AppiumDriver driver = createSession();
+                    if(warmPoolClosed) {
+                        quit(driver);
+                        WARM_PENDING.decrementAndGet();
                     } else {
-                        platform = PlatformType.fromString(cmdPlatform);
+                        WARM_SESSIONS.offer(driver);
                     }
+                } catch (Exception e) {
+                    WARM_PENDING.decrementAndGet();
+                    log.error("Failed to warm up an Appium session", e);
+                }
+            });
+        }
+    }
 
-                    if(PlatformType.ANDROID == platform) {
-                        launchEmulator();
-                    }
+    private static AppiumDriver takeWarmSession() {
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(getLong("appium.session.pool.timeout", 300));
 
-                    initDriver(platform);
+            while(System.nanoTime() < deadline) {
+                AppiumDriver driver = WARM_SESSIONS.poll(WARM_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(driver != null) {
+                    WARM_PENDING.decrementAndGet();
+                    return driver;
+                }
+                if(WARM_PENDING.get() <= 0) {
+                    break;
                 }
             }
+
+            log.warn("No warm session became available, creating one on demand");
+            return null;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FrameworkException("Interrupted whilst waiting for a warm session", e);
         }
+    }
 
-        return driver;
+    /**
+     * Quit every session that is still alive, regardless of the thread that created it
+     */
+    public static void quitAllDrivers() {
+        // warm-ups still in flight quit their session themselves once it is created
+        warmPoolClosed = true;
+        ExecutorService executor = warmPoolExecutor;
+        if(executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(WARM_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        WARM_SESSIONS.clear();
+
+        List<AppiumDriver> drivers = new ArrayList<>(ACTIVE_DRIVERS);
+        for(AppiumDriver driver: drivers) {
+            quit(driver);
+        }
+        DRIVER.remove();
+        PooledHttpClientFactory.closeInstance();
+    }
+
+    private static void quit(AppiumDriver driver) {
+        if(ACTIVE_DRIVERS.remove(driver)) {
+            log.info("Quiting driver {}", driver);
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                log.warn("Failed to quit driver {}", driver, e);
+            }
+
+            DeviceLease lease = LEASES.remove(driver);
+            if(lease != null) {
+                lease.release();
+            }
+        }
     }
 
     /**
-     * Quit the appium driver and close any windows
+     * Bring the app back to its initial state whilst keeping the current session
+     * @param driver - the session to reset
+     * @param type - the reset strategy
+     * @param deepLink - the deep link to the home screen, only used by {@link ResetType#DEEP_LINK}
      */
-    public static void quitDriver() {
-        if(driver != null) {
-            synchronized(DriverWrapper.class) {
-                if(driver != null) {
-                    log.info("Quiting driver {}", driver);
-                    driver.quit();
-                    driver = null;
+    public static void resetApp(AppiumDriver driver, ResetType type, String deepLink) {
+        long start = System.currentTimeMillis();
+        boolean android = driver instanceof AndroidDriver;
+
+        switch(type) {
+            case TERMINATE_ACTIVATE:
+                driver.terminateApp(getAppId(driver));
+                driver.activateApp(getAppId(driver));
+                break;
+
+            case CLEAR_DATA:
+                if(android) {
+                    Map<String, Object> params = new HashMap<>();
+                    params.put("command", "pm");
+                    params.put("args", new String[] {"clear", getAppId(driver)});
+                    driver.executeScript("mobile: shell", params);
+                    driver.activateApp(getAppId(driver));
+                } else {
+                    log.warn("Clearing app data is not supported on iOS, relaunching the app instead");
+                    driver.closeApp();
+                    driver.launchApp();
+                }
+                break;
+
+            case DEEP_LINK:
+                if(StringUtils.isBlank(deepLink)) {
+                    throw new FrameworkException("A deep link is required to reset the app with " + type);
+                }
+                if(android) {
+                    Map<String, Object> params = new HashMap<>();
+                    params.put("url", deepLink);
+                    params.put("package", getAppId(driver));
+                    driver.executeScript("mobile: deepLink", params);
+                } else {
+                    driver.get(deepLink);
                 }
+                break;
+
+            case RELAUNCH:
+            default:
+                driver.closeApp();
+                driver.launchApp();
+                break;
+        }
+
+        ScreenState.of(driver).invalidate();
+        ScrollEngine.invalidateWindowSize(driver);
+        log.info("Reset app with {} in {} ms", type, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The package (Android) or bundle id (iOS) of the app under test, taken from
+     * application.properties or else from the session capabilities
+     * @param driver - the current session
+     * @return the app id
+     */
+    private static String getAppId(AppiumDriver driver) {
+        if(driver instanceof AndroidDriver) {
+            String appPackage = get("android.app.package");
+            if(StringUtils.isBlank(appPackage)) {
+                Object capability = driver.getCapabilities().getCapability("appPackage");
+                appPackage = capability != null ? capability.toString() : ((AndroidDriver) driver).getCurrentPackage();
             }
+            return appPackage;
         }
+
+        String bundleId = get("ios.bundle.id");
+        if(StringUtils.isBlank(bundleId)) {
+            Object capability = driver.getCapabilities().getCapability("bundleId");
+            if(capability == null) {
+                throw new FrameworkException("Expected ios.bundle.id to be set to reset the app");
+            }
+            bundleId = capability.toString();
+        }
+        return bundleId;
     }
 
     /**
-     * Launch the Android virtual device
+     * Start booting the Android device pool ahead of demand, see {@link DeviceScheduler}
      */
     public static void launchEmulator() {
-        try {
-            Runtime.getRuntime().exec("emulator -avd " + get("android.device.name"));
-        } catch (IOException e) {
-            log.error("Failed to launch the Android emulator", e);
-        }
+        DeviceScheduler.getInstance();
     }
 
 }
@@ -0,0 +1,171 @@
+package com.selendroid.qa.appium;
+
+import lombok.Builder;
+import lombok.extern.log4j.Log4j2;
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.StringUtils;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static com.selendroid.qa.utils.PropertyUtil.getBoolean;
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
+import static com.selendroid.qa.utils.PropertyUtil.getLong;
+
+/**
+ * An HTTP client factory shared by all the Appium sessions, so the connections to the server
+ * are pooled and kept alive across sessions instead of every driver opening its own pool.
+ * Sockets are created with TCP_NODELAY since commands are small request/response exchanges.
+ *
+ * OkHttp never pipelines, a pooled connection carries one command at a time, so reuse is safe
+ * as long as the keep alive stays below the idle timeout of the server (or the grid in front of
+ * it), stale connections are retried when retryOnConnectionFailure is set
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class PooledHttpClientFactory implements HttpClient.Factory {
+
+    private static PooledHttpClientFactory instance;
+
+    private final ConnectionPool pool;
+
+    private final OkHttpClient client;
+
+    /**
+     * Create a factory with its own connection pool
+     * @param maxIdleConnections - the maximum number of idle connections kept in the pool
+     * @param keepAliveSeconds - how long an idle connection is kept
+     * @param connectTimeoutSeconds - the connect timeout
+     * @param readTimeoutSeconds - the read timeout, new sessions can take minutes
+     * @param writeTimeoutSeconds - the write timeout
+     * @param retryOnConnectionFailure - true to retry a command once on a stale connection
+     * @param tcpNoDelay - true to disable Nagle's algorithm on the sockets
+     */
+    @Builder
+    public PooledHttpClientFactory(int maxIdleConnections, long keepAliveSeconds, long connectTimeoutSeconds,
+            long readTimeoutSeconds, long writeTimeoutSeconds, boolean retryOnConnectionFailure, boolean tcpNoDelay) {
+
+        this.pool = new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(pool)
+                .followRedirects(true)
+                .followSslRedirects(true)
+                .retryOnConnectionFailure(retryOnConnectionFailure)
+                .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(readTimeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(writeTimeoutSeconds, TimeUnit.SECONDS);
+
+        if(tcpNoDelay) {
+            builder.socketFactory(new NoDelaySocketFactory(SocketFactory.getDefault()));
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * Get the shared factory configured from application.properties
+     * @return the shared factory
+     */
+    public static synchronized PooledHttpClientFactory getInstance() {
+        if(instance == null) {
+            instance = PooledHttpClientFactory.builder()
+                    .maxIdleConnections(getInt("appium.http.pool.max.idle", 10))
+                    .keepAliveSeconds(getLong("appium.http.pool.keep.alive.seconds", 55))
+                    .connectTimeoutSeconds(getLong("appium.http.connect.timeout.seconds", 120))
+                    .readTimeoutSeconds(getLong("appium.http.read.timeout.seconds", 600))
+                    .writeTimeoutSeconds(getLong("appium.http.write.timeout.seconds", 60))
+                    .retryOnConnectionFailure(getBoolean("appium.http.retry.on.connection.failure", true))
+                    .tcpNoDelay(getBoolean("appium.http.tcp.no.delay", true))
+                    .build();
+            log.info("Created the shared Appium HTTP connection pool");
+        }
+        return instance;
+    }
+
+    @Override
+    public HttpClient createClient(URL url) {
+        OkHttpClient urlClient = client;
+
+        if(StringUtils.isNotEmpty(url.getUserInfo())) {
+            // basic auth for grids like user:key@host, still on the shared pool
+            String[] credentials = url.getUserInfo().split(":", 2);
+            String authorization = Credentials.basic(credentials[0], credentials.length > 1 ? credentials[1] : "");
+            urlClient = client.newBuilder()
+                    .authenticator((route, response) -> response.request().header("Authorization") != null ? null :
+                            response.request().newBuilder().header("Authorization", authorization).build())
+                    .build();
+        }
+
+        return new org.openqa.selenium.remote.internal.OkHttpClient(urlClient, url);
+    }
+
+    /**
+     * The driver calls this every time a session quits. The pool is shared with the other sessions, so
+     * the connections are kept for them, idle connections are closed after the keep alive or by
+     * {@link #closeInstance()}
+     */
+    @Override
+    public void cleanupIdleClients() {
+        // keep the connections for the next session
+    }
+
+    /**
+     * Close the idle connections of the shared factory if it was used, once every session has quit
+     */
+    public static synchronized void closeInstance() {
+        if(instance != null) {
+            instance.pool.evictAll();
+        }
+    }
+
+    /**
+     * Creates sockets with TCP_NODELAY set
+     */
+    private static final class NoDelaySocketFactory extends SocketFactory {
+
+        private final SocketFactory delegate;
+
+        private NoDelaySocketFactory(SocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return noDelay(delegate.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return noDelay(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return noDelay(delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return noDelay(delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            return noDelay(delegate.createSocket(address, port, localAddress, localPort));
+        }
+
+        private static Socket noDelay(Socket socket) throws IOException {
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.selendroid.qa.appium;
+
+import com.selendroid.qa.metrics.Instrumentation;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Wraps the HTTP client of the Appium driver to record every command sent to the server: the
+ * command (method and path with the session and element ids replaced), the payload sizes, the
+ * latency and the status. Commands are attributed to the journey running on the calling thread,
+ * see {@link Instrumentation#recordCommand(String, long, long, int, long)}.
+ *
+ * Only installed with appium.http.profile=true, otherwise the driver uses the plain client
+ *
+ * @author sanjay
+ *
+ */
+public class ProfilingHttpClientFactory implements HttpClient.Factory {
+
+    private static final String SESSION = "session";
+
+    private static final String ELEMENT = "element";
+
+    private static final String ACTIVE = "active";
+
+    private final HttpClient.Factory delegate;
+
+    /**
+     * Create a profiling factory
+     * @param delegate - the factory of the clients that send the commands
+     */
+    public ProfilingHttpClientFactory(HttpClient.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public HttpClient createClient(URL url) {
+        HttpClient client = delegate.createClient(url);
+        return request -> execute(client, request);
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate.cleanupIdleClients();
+    }
+
+    private static HttpResponse execute(HttpClient client, HttpRequest request) throws IOException {
+        long start = System.nanoTime();
+        int status = -1;
+        long responseBytes = 0;
+
+        try {
+            HttpResponse response = client.execute(request);
+            status = response.getStatus();
+            responseBytes = response.getContent().length;
+            return response;
+
+        } finally {
+            Instrumentation.recordCommand(toCommand(request), request.getContent().length, responseBytes,
+                    status, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Name a request after its method and path with the ids replaced
+     * e.g. POST /session/:sessionId/element/:elementId/click
+     * @param request - the request
+     * @return the command name
+     */
+    static String toCommand(HttpRequest request) {
+        String[] segments = request.getUri().split("\\?")[0].split("/");
+        StringBuilder command = new StringBuilder(request.getMethod().name()).append(' ');
+
+        // skip the base path of the server e.g. /wd/hub
+        int first = 0;
+        while(first < segments.length && !SESSION.equals(segments[first]) && !"status".equals(segments[first])) {
+            first++;
+        }
+        if(first == segments.length) {
+            return command.append(request.getUri()).toString();
+        }
+
+        for(int i = first; i < segments.length; i++) {
+            String previous = i > first ? segments[i - 1] : "";
+            command.append('/');
+
+            if(SESSION.equals(previous)) {
+                command.append(":sessionId");
+            } else if(ELEMENT.equals(previous) && !ACTIVE.equals(segments[i])) {
+                command.append(":elementId");
+            } else {
+                command.append(segments[i]);
+            }
+        }
+        return command.toString();
+    }
+}
@@ -1,23 +1,16 @@
 package com.selendroid.qa.components;
 
-import com.selendroid.qa.exception.FrameworkException;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.openqa.selenium.WebElement;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * This class is a container for all the elements on the screen. It's a wrapper of the
@@ -33,37 +26,44 @@ public abstract class BaseElements<T extends Component> {
     @Getter(AccessLevel.NONE)
     private Map<String, T> components = new HashMap<>();
 
+    /**
+     * The components in the order of the generated registry, see {@link ComponentKey}
+     */
+    @Getter(AccessLevel.NONE)
+    private Component[] registered = new Component[0];
+
+    @Getter(AccessLevel.NONE)
+    private Class<?> registry;
+
     protected boolean isIOS;
 
     protected boolean isAndroid;
 
     /**
      * Initialization will get all the private fields in this component, checks
-     * if they are of type WebElement before wrapping them into Component
+     * if they are of type WebElement before wrapping them into Component. The fields
+     * are discovered once per class, see {@link ElementsMetadata}
      *
      */
     protected void init(AppiumDriver driver) {
         // load properties here
         this.isIOS = driver instanceof IOSDriver;
         this.isAndroid = driver instanceof AndroidDriver;
-        Field[] fields = this.getClass().getDeclaredFields();
-        List<Field> privateFields = Arrays.asList(fields).stream()
-                .filter(field -> Modifier.isPrivate(field.getModifiers()))
-                .collect(Collectors.toList());
+        // read from the local capabilities, the session details would cost a round trip
+        String platform = String.valueOf(driver.getCapabilities().getCapability("platformName"));
+        String automation = String.valueOf(driver.getCapabilities().getCapability("automationName"));
+
+        ElementsMetadata metadata = ElementsMetadata.of(this.getClass());
 
-        for(Field field: privateFields) {
+        for(ElementsMetadata.ElementField field: metadata.getFields()) {
             String name = field.getName();
-            Object value = null;
-            try {
-                value = FieldUtils.readField(field, this, true);
-            } catch (IllegalAccessException e) {
-                log.error("Failed initialize elements class for " + this, e);
-                throw new FrameworkException(e);
-            }
+            Object value = field.read(this);
 
             if(value instanceof WebElement) {
                 // web element and mobile elements we call the custom create method
-                components.put(name, this.createComponent(name, (WebElement) value, driver));
+                T component = this.createComponent(name, (WebElement) value, driver);
+                component.bind(name, field.getBy(platform, automation), field.getScope());
+                components.put(name, component);
 
             } else {
                 log.warn("Skipping field {} as it's not an instance of WebElement", name);
@@ -72,7 +72,21 @@ public abstract class BaseElements<T extends Component> {
 
         this.createAdditionalComponents(components, driver);
 
+        this.registry = metadata.getRegistry();
+        this.registered = new Component[metadata.getKeys().length];
+        for(ComponentKey key: metadata.getKeys()) {
+            registered[key.ordinal()] = components.get(key.getFieldName());
+        }
+
+    }
 
+    /**
+     * Drop the elements and geometry cached by every component, they are looked up again on next use
+     */
+    protected void invalidate() {
+        for(T component: components.values()) {
+            component.invalidate();
+        }
     }
 
     /**
@@ -105,4 +119,16 @@ public abstract class BaseElements<T extends Component> {
         return Optional.ofNullable(components.get(name));
     }
 
+    /**
+     * Return the component by its generated key, a constant time array lookup
+     * @param key - the component key from the generated registry
+     * @return the component if found, otherwise null
+     */
+    protected Optional<T> getComponent(ComponentKey key) {
+        if(key.getClass() == registry) {
+            return Optional.ofNullable((T) registered[key.ordinal()]);
+        }
+        return getComponent(key.getFieldName());
+    }
+
 }
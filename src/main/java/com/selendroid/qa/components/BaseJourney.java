@@ -2,7 +2,10 @@ package com.selendroid.qa.components;
 
 import com.selendroid.qa.appium.DriverWrapper;
 import com.selendroid.qa.enums.PlatformType;
+import com.selendroid.qa.enums.ResetType;
 import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.hierarchy.UiHierarchy;
 import com.selendroid.qa.reporting.ExtentManager;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
@@ -13,15 +16,17 @@ import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.support.PageFactory;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * A Base Journey implementation that includes the initialization of the elements
  * using the Appium driver. The initialization works this way:
- * 1- Upon creation the {@link Elements} annotation
+ * 1- Before the class runs the {@link Elements} annotation
  *    is read
  * 2- The target Elements class is initialized with the Appium driver
  * 3- Elements are read and wrapped in Component class and stored in the component dictionary
@@ -34,74 +39,84 @@ import java.util.Optional;
 @SuppressWarnings("rawtypes")
 public abstract class BaseJourney {
 
-    private final AppiumDriver driver;
+    private AppiumDriver driver;
 
     private BaseElements<Component> elements;
 
-    protected final boolean isIOS;
+    protected boolean isIOS;
 
-    protected final boolean isAndroid;
+    protected boolean isAndroid;
 
     /**
-     * Create and initialize a new journey instance
+     * Bind this journey to the driver of the worker thread that runs it. TestNG creates the
+     * journey instances upfront on the main thread, so the driver is only requested once the
+     * class is about to run
      */
-    public BaseJourney() {
-        this.driver = DriverWrapper.getDriver();
-        this.initElements();
+    @BeforeClass(alwaysRun = true)
+    public void bindDriver() {
+        bind(DriverWrapper.getDriver(), DriverWrapper.getActivePlatform());
+    }
+
+    /**
+     * Bind this journey to a session and initialize its elements for the platform
+     * @param driver - the session
+     * @param platform - the platform the elements are selected for
+     */
+    void bind(AppiumDriver driver, PlatformType platform) {
+        this.driver = driver;
+        this.initElements(platform);
         // load properties here
         this.isIOS = driver instanceof IOSDriver;
         this.isAndroid = driver instanceof AndroidDriver;
     }
 
     /**
-     * Initialize this journey instance
+     * Quit the session of this journey once the class is done, so its device goes back to the
+     * pool for the next class
      */
-    @SuppressWarnings("unchecked")
-    private void initElements() {
-
-        try {
-
-            Elements marker = null;
-
-            for (Annotation annotation : this.getClass().getDeclaredAnnotations()) {
-                if(annotation instanceof Elements) {
-                    marker = (Elements) annotation;
-                }
-            }
-
-            if(marker == null) {
-                String msg = "Expected @Elements annotation on Screen class";
-                log.error(msg);
-                throw new FrameworkException(msg);
-            }
+    @AfterClass(alwaysRun = true)
+    public void releaseDriver() {
+        DriverWrapper.quitDriver();
+    }
 
-            PlatformType platform = DriverWrapper.getActivePlatform();
-            Validate.notNull(platform);
+    /**
+     * Reset the app to its initial state using the strategy selected by {@link SessionReset},
+     * the session itself is reused
+     */
+    public void resetApp() {
+        SessionReset reset = JourneyMetadata.of(this.getClass()).getReset();
 
-            Class<? extends BaseElements> elementsClass = null;
+        if(reset == null) {
+            DriverWrapper.resetApp(driver, ResetType.RELAUNCH, null);
+        } else {
+            DriverWrapper.resetApp(driver, reset.value(), reset.deepLink());
+        }
+        invalidate();
+    }
 
-            if(marker.elements().equals(BaseElements.class)) {
-                // do we have individual iOS or Android elements?
-                if(PlatformType.ANDROID == platform) {
-                    elementsClass = marker.androidElements();
+    /**
+     * Forget everything cached about the screen: the snapshot, and the elements and geometry kept
+     * by the components, including the ones kept for the whole journey (see {@link LookupCache}).
+     * Call it after a navigation the framework can't see e.g. a push notification or a deep link
+     */
+    public void invalidate() {
+        ScreenState.of(driver).invalidate();
+        elements.invalidate();
+    }
 
-                } else if(PlatformType.IOS == platform) {
-                    elementsClass = marker.iosElements();
-                } else {
-                    throw new IllegalArgumentException("Un-supported platform");
-                }
+    /**
+     * Initialize this journey instance, the annotations and elements class are resolved
+     * once per journey class, see {@link JourneyMetadata}
+     * @param platform - the platform the elements are selected for
+     */
+    @SuppressWarnings("unchecked")
+    private void initElements(PlatformType platform) {
 
-            } else {
-                // just take combined merged elements
-                elementsClass = marker.elements();
-            }
+        try {
 
-            if(marker.elements().equals(BaseElements.class)) {
-                throw new IllegalArgumentException("Expected that you provide an elements class");
-            }
+            Validate.notNull(platform);
 
-            Constructor<? extends BaseElements> constructor = elementsClass.getConstructor();
-            this.elements = constructor.newInstance();
+            this.elements = JourneyMetadata.of(this.getClass()).newElements(platform);
 
             PageFactory.initElements(new AppiumFieldDecorator(driver), elements);
 
@@ -131,4 +146,48 @@ public abstract class BaseJourney {
         }
 
     }
+
+    /**
+     * Get a component by its key from the registry generated for the elements class
+     * e.g. LoginElementsComponents.USERNAME. Unknown components fail at compile time
+     * @param key - the component key
+     * @return the component for the key
+     */
+    public Component getComponent(ComponentKey key) {
+        return elements.getComponent(key)
+                .orElseThrow(() -> new FrameworkException("Component registry is out of date, missing " + key));
+    }
+
+    /**
+     * Capture a snapshot of the screen. Until the next action (click, typing, gesture, etc.)
+     * component verifications are answered from the snapshot without any round trip
+     * @return the snapshot of the screen
+     */
+    public UiHierarchy snapshot() {
+        return ScreenState.of(driver).capture(driver);
+    }
+
+    /**
+     * Verify several components together. The page source is fetched once, or the current snapshot
+     * is reused, and every verification is answered from it. Components that are not in the snapshot
+     * yet are verified against the live element (which waits for them)
+     * @param verifications - the verifications to run
+     * @return the result per component name, verifications of the same component are and-ed
+     */
+    public Map<String, Boolean> verifyAll(Verification... verifications) {
+        UiHierarchy hierarchy = ScreenState.of(driver).getSnapshot()
+                .orElseGet(() -> UiHierarchy.parse(driver.getPageSource(), isIOS));
+        Map<String, Boolean> results = new LinkedHashMap<>();
+
+        for(Verification verification: verifications) {
+            Component<?> component = getComponent(verification.getName());
+
+            boolean result = component.verify(hierarchy, verification.getType(), verification.getExpected())
+                    .orElseGet(() -> component.verify(verification.getType(), verification.getExpected()));
+
+            results.merge(verification.getName(), result, Boolean::logicalAnd);
+        }
+
+        return results;
+    }
 }
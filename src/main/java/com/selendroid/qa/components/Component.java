@@ -1,17 +1,40 @@
 package com.selendroid.qa.components;
 
-import com.aventstack.extentreports.Status;
+import com.selendroid.qa.enums.CacheScope;
+import com.selendroid.qa.enums.DirectionType;
 import com.selendroid.qa.enums.VerifyType;
+import com.selendroid.qa.hierarchy.Locator;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.hierarchy.UiHierarchy;
+import com.selendroid.qa.metrics.Instrumentation;
+import com.selendroid.qa.reporting.EventLog;
+import com.selendroid.qa.utils.ActionUtil;
+import com.selendroid.qa.utils.Gesture;
+import com.selendroid.qa.utils.ScrollEngine;
 import com.selendroid.qa.utils.TestUtil;
 import com.selendroid.qa.utils.WaitUtil;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
+import org.w3c.dom.Element;
 
-import static com.selendroid.qa.utils.WaitUtil.waitForElementToBeVisible;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The base class for all components. A component is a wrapper for WebElement and its subclasses
@@ -21,13 +44,43 @@ import static com.selendroid.qa.utils.WaitUtil.waitForElementToBeVisible;
  * @author sanjay
  *
  */
+@Log4j2
 @SuppressWarnings("rawtypes")
 public class Component<T extends WebElement> {
 
+    private static final String VERIFY = "verify";
+    private static final String VERIFY_SNAPSHOT = "verifySnapshot";
+    private static final String ENTER_TEXT = "enterText";
+    private static final String GET_TEXT = "getText";
+    private static final String CLICK = "click";
+    private static final String CLEAR = "clear";
+    private static final String ACCEPT_INPUT = "acceptInput";
+    private static final String DISMISS_KEYBOARD = "dismissKeyboard";
+    private static final String SCROLL_TO = "scrollTo";
+    private static final String DRAG_TO = "dragTo";
+
     private T element;
 
     private AppiumDriver driver;
 
+    private String name;
+
+    private By by;
+
+    private WebElement resolved;
+
+    private long resolvedGeneration = -1;
+
+    private CacheScope scope = CacheScope.SCREEN;
+
+    private long actions;
+
+    private long resolvedAction = -1;
+
+    private Rectangle rect;
+
+    private long rectGeneration = -1;
+
     protected final boolean isIOS;
 
     protected final boolean isAndroid;
@@ -73,11 +126,196 @@ public class Component<T extends WebElement> {
     }
 
     /**
-     * The name of the component which is simply the class name
-     * @return the class name
+     * The name of the component which is the field name in the elements class, or simply
+     * the class name for components that do not wrap a field
+     * @return the component name
      */
     public String getName() {
-        return getClass().getName();
+        return name != null ? name : getClass().getName();
+    }
+
+    /**
+     * Get the By the wrapped element is located with
+     * @return the By or null if the component does not wrap a field
+     */
+    public By getBy() {
+        return by;
+    }
+
+    /**
+     * Get the rect of the wrapped element. It is fetched once per screen generation, any action
+     * on the driver (click, typing, gestures, navigation) discards it
+     * @return the rect of the element
+     */
+    public Rectangle getRect() {
+        long generation = ScreenState.of(driver).getGeneration();
+        if(rect == null || rectGeneration != generation) {
+            rect = query(WebElement::getRect);
+            rectGeneration = generation;
+        }
+        return rect;
+    }
+
+    /**
+     * Get the location of the wrapped element, see {@link #getRect()}
+     * @return the top left corner of the element
+     */
+    public Point getLocation() {
+        return getRect().getPoint();
+    }
+
+    /**
+     * Get the size of the wrapped element, see {@link #getRect()}
+     * @return the size of the element
+     */
+    public Dimension getSize() {
+        return getRect().getDimension();
+    }
+
+    /**
+     * Get the center of the wrapped element, see {@link #getRect()}
+     * @return the center point of the element
+     */
+    public Point getCenter() {
+        return Gesture.center(getRect());
+    }
+
+    /**
+     * Resolve the wrapped element. Components bound to a field look up their By and keep the
+     * resolved element for their cache scope (see {@link LookupCache}), unlike the PageFactory
+     * proxy that looks the element up again on every call
+     * @return the resolved element
+     */
+    protected WebElement resolve() {
+        if(by == null) {
+            return element;
+        }
+        if(!isResolved()) {
+            resolved = driver.findElement(by);
+            resolvedGeneration = ScreenState.of(driver).getGeneration();
+            resolvedAction = actions;
+        }
+        return resolved;
+    }
+
+    private boolean isResolved() {
+        if(resolved == null) {
+            return false;
+        }
+        switch(scope) {
+            case NONE:
+                return false;
+            case ACTION:
+                return resolvedAction == actions;
+            case SCREEN:
+                return resolvedGeneration == ScreenState.of(driver).getGeneration();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Start a new action, elements cached for the {@link CacheScope#ACTION} scope are looked up again
+     */
+    private void beginAction() {
+        actions++;
+    }
+
+    /**
+     * Drop the cached element and geometry, they are looked up again on next use
+     */
+    void invalidate() {
+        resolved = null;
+        rect = null;
+    }
+
+    /**
+     * Run a query on the resolved element. If the element went stale, e.g. the screen was
+     * re-rendered, it is resolved again and the query is retried once
+     * @param query - the query to run on the element
+     * @param <R> - the result of the query
+     * @return the result of the query
+     */
+    protected <R> R query(Function<WebElement, R> query) {
+        return query(resolve(), query);
+    }
+
+    private <R> R query(WebElement value, Function<WebElement, R> query) {
+        try {
+            return query.apply(value);
+        } catch (StaleElementReferenceException e) {
+            log.debug("Component {} went stale, resolving it again", getName());
+            resolved = null;
+            return query.apply(resolve());
+        }
+    }
+
+    /**
+     * Run an action on the resolved element, retried once on a stale element, see {@link #query(Function)}
+     * @param action - the action to run on the element
+     */
+    protected void act(Consumer<WebElement> action) {
+        query(value -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    private void act(Precondition precondition, Consumer<WebElement> action) {
+        query(precondition.getElement(), value -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    /**
+     * The precondition step of every action: wait until the element is visible and return it
+     * with its visibility, so the action runs on it without looking it up or checking it again
+     * @param action - the action name
+     * @return the precondition of the action
+     */
+    private Precondition prepare(String action) {
+        long start = System.nanoTime();
+        long commands = Instrumentation.getCommandCount();
+        beginAction();
+        EventLog.markAction(action);
+        WebElement visible = null;
+        try {
+            visible = WaitUtil.waitUntil(ignored -> {
+                try {
+                    WebElement value = resolve();
+                    return value.isDisplayed() ? value : null;
+                } catch (StaleElementReferenceException e) {
+                    resolved = null;
+                    throw e;
+                }
+            }, driver);
+        } catch (TimeoutException e) {
+            log.debug("Component {} is not displayed", getName(), e);
+        }
+        return new Precondition(visible, visible != null, start, System.nanoTime(), commands);
+    }
+
+    /**
+     * Record the latency of an action and the number of driver commands it sent
+     * @param action - the action name
+     * @param precondition - the precondition of the action
+     */
+    private void record(String action, Precondition precondition) {
+        Instrumentation.record(getName(), action, precondition.getStartNanos(), precondition.getReadyNanos(),
+                System.nanoTime(), Instrumentation.getCommandCount() - precondition.getStartCommands());
+    }
+
+    /**
+     * Bind the component to the elements field it was created from
+     * @param name - the field name
+     * @param by - the By built from the field annotations
+     * @param scope - how long the resolved element is kept
+     */
+    void bind(String name, By by, CacheScope scope) {
+        this.name = name;
+        this.by = by;
+        this.scope = scope;
     }
 
     /**
@@ -99,49 +337,50 @@ public class Component<T extends WebElement> {
 
     /**
      * Generic verifications related to the current component. e.g. checking visibility, type, etc.
-     * The verification types are included in {@link VerifyType}
+     * The verification types are included in {@link VerifyType}. When a snapshot of the screen
+     * was captured (see {@link BaseJourney#snapshot()}) the verification is answered from it
      * @param type - the verification type
      * @param expected - the expected value
      * @return
      */
     public boolean verify(VerifyType type, String expected) {
+        long start = System.nanoTime();
+        Optional<UiHierarchy> snapshot = ScreenState.of(driver).getSnapshot();
+        if(snapshot.isPresent()) {
+            Optional<Boolean> result = verify(snapshot.get(), type, expected);
+            if(result.isPresent()) {
+                long end = System.nanoTime();
+                Instrumentation.record(getName(), VERIFY_SNAPSHOT, start, start, end);
+                return result.get();
+            }
+        }
+
         boolean result = false;
         try {
-            WaitUtil.waitForElementToBeVisible(element, driver);
-            if (element.isDisplayed()) {
+            Precondition precondition = prepare(VERIFY);
+            if (precondition.isDisplayed()) {
+                WebElement visible = precondition.getElement();
 
+                String actual;
                 switch(type) {
-                    case DISPLAYED:
-                        result = assertEquals(element.getAttribute("displayed"), expected);
-                        break;
-                    case PASSWORD:
-                        result = assertEquals(element.getAttribute("password"), expected);
-                        break;
-                    case TYPE:
-                        result = assertEquals(element.getAttribute("type"), expected);
-                        break;
-                    case VISIBLE:
-                        result = assertEquals(element.getAttribute("visible"), expected);
-                        break;
-                    case VALUE:
-                        result = assertEquals(element.getAttribute("value"), expected);
-                        break;
-                    case CHECKED:
-                        result = assertEquals(element.getAttribute("checked"), expected);
-                        break;
                     case ENABLED:
-                        result = assertEquals(element.isEnabled(), Boolean.getBoolean(expected));
+                        actual = String.valueOf(query(visible, WebElement::isEnabled));
                         break;
                     case TEXT:
-                        result = assertEquals(element.getText(), expected);
+                        actual = query(visible, WebElement::getText);
                         break;
                     case TAG:
-                        result = assertEquals(element.getTagName(), expected);
+                        actual = query(visible, WebElement::getTagName);
+                        break;
+                    case DISPLAYED:
+                        actual = String.valueOf(true);
                         break;
                     default:
+                        actual = query(visible, value -> value.getAttribute(type.name().toLowerCase()));
                         break;
-
                 }
+                result = matches(type, actual, expected);
+                record(VERIFY, precondition);
 
             } else {
                 TestUtil.failWithScreenshot(driver);
@@ -153,21 +392,36 @@ public class Component<T extends WebElement> {
         return result;
     }
 
-    private boolean assertEquals(String actual, String expected) {
-        return actual.equals(expected);
+    /**
+     * Run the verification against a snapshot of the UI hierarchy instead of the live element
+     * @param hierarchy - the snapshot of the screen
+     * @param type - the verification type
+     * @param expected - the expected value
+     * @return the verification result, or empty if the element can't be found in the snapshot
+     */
+    public Optional<Boolean> verify(UiHierarchy hierarchy, VerifyType type, String expected) {
+        Optional<Element> node = Locator.from(by).flatMap(hierarchy::find);
+        return node.map(value -> matches(type, hierarchy.getValue(value, type), expected));
     }
 
-    private boolean assertEquals(boolean actual, boolean expected) {
-        return actual == expected;
+    private static boolean matches(VerifyType type, String actual, String expected) {
+        if(VerifyType.ENABLED == type) {
+            return Boolean.parseBoolean(actual) == Boolean.parseBoolean(expected);
+        }
+        return Objects.equals(actual, expected);
     }
 
-
     /**
      * Check if this element is displayed without verification
      * @return true if the element is displayed, false otherwise
      */
     public boolean isDisplayed() {
-        return TestUtil.isElementDisplayed(element);
+        beginAction();
+        try {
+            return query(WebElement::isDisplayed);
+        } catch (WebDriverException e) {
+            return false;
+        }
     }
 
     // actions
@@ -190,12 +444,14 @@ public class Component<T extends WebElement> {
      */
     public Component<T> enterText(String text, boolean clickAndEnter) {
         try {
-            WaitUtil.waitForElementToBeVisible(element, driver);
-            if (element.isDisplayed()) {
+            Precondition precondition = prepare(ENTER_TEXT);
+            if (precondition.isDisplayed()) {
                 if(clickAndEnter) {
-                    element.click();
+                    act(precondition, WebElement::click);
                 }
-                element.sendKeys(text);
+                act(precondition, value -> value.sendKeys(text));
+                ScreenState.of(driver).invalidate();
+                record(ENTER_TEXT, precondition);
             } else {
                 TestUtil.failWithScreenshot(driver);
             }
@@ -211,9 +467,11 @@ public class Component<T extends WebElement> {
      */
     public String getText() {
         try {
-            WaitUtil.waitForElementToBeVisible(element, driver);
-            if (element.isDisplayed()) {
-                return element.getText();
+            Precondition precondition = prepare(GET_TEXT);
+            if (precondition.isDisplayed()) {
+                String text = query(precondition.getElement(), WebElement::getText);
+                record(GET_TEXT, precondition);
+                return text;
             } else {
                 TestUtil.failWithScreenshot(driver);
             }
@@ -229,9 +487,11 @@ public class Component<T extends WebElement> {
      */
     public Component<T> click() {
         try {
-            WaitUtil.waitForElementToBeVisible(element, driver);
-            if (element.isDisplayed()) {
-                element.click();
+            Precondition precondition = prepare(CLICK);
+            if (precondition.isDisplayed()) {
+                act(precondition, WebElement::click);
+                ScreenState.of(driver).invalidate();
+                record(CLICK, precondition);
             } else {
                 TestUtil.failWithScreenshot(driver);
             }
@@ -247,9 +507,11 @@ public class Component<T extends WebElement> {
      */
     public Component<T> clear() {
         try {
-            WaitUtil.waitForElementToBeVisible(element, driver);
-            if (element.isDisplayed()) {
-                element.clear();
+            Precondition precondition = prepare(CLEAR);
+            if (precondition.isDisplayed()) {
+                act(precondition, WebElement::clear);
+                ScreenState.of(driver).invalidate();
+                record(CLEAR, precondition);
             } else {
                 TestUtil.failWithScreenshot(driver);
             }
@@ -264,11 +526,45 @@ public class Component<T extends WebElement> {
      * @return
      */
     public Component<T> acceptInput() {
+        long start = System.nanoTime();
+        beginAction();
         if(this.isIOS) {
-            element.click();
+            act(WebElement::click);
         } else {
             TestUtil.enterKeyboard(getDriver());
         }
+        ScreenState.of(driver).invalidate();
+        Instrumentation.record(getName(), ACCEPT_INPUT, start, start, System.nanoTime());
+        return this;
+    }
+
+    /**
+     * Scroll until this element is on the screen, in a single command when its locator allows it
+     * @param direction - the direction to scroll the content in, e.g. DOWN to reveal what's below
+     * @return
+     */
+    public Component<T> scrollTo(DirectionType direction) {
+        long start = System.nanoTime();
+        boolean found = by != null ? ScrollEngine.scrollTo(by, direction, driver).isPresent() :
+                ScrollEngine.scrollUntilDisplayed(element, direction, driver);
+        Instrumentation.record(getName(), SCROLL_TO, start, start, System.nanoTime());
+        if(!found) {
+            TestUtil.failWithScreenshot(driver);
+        }
+        return this;
+    }
+
+    /**
+     * Touch and hold this element then drag it to the center of another component, the positions
+     * come from the geometry of both components
+     * @param target - the component to drop this element on
+     * @return
+     */
+    public Component<T> dragTo(Component<?> target) {
+        Point from = getCenter();
+        Point to = target.getCenter();
+        Duration wait = Duration.ofMillis(ActionUtil.DEFAULT_SCROLL_WAIT_MILLIS);
+        Gesture.on(driver).drag(from.getX(), from.getY(), to.getX(), to.getY(), wait, wait).perform(DRAG_TO);
         return this;
     }
 
@@ -277,12 +573,35 @@ public class Component<T extends WebElement> {
      * @return
      */
     public Component<T> dismissKeyboard() {
+        long start = System.nanoTime();
+        beginAction();
         if(this.isIOS) {
-            element.click();
+            act(WebElement::click);
         } else {
             TestUtil.hideKeyboard(getDriver());
         }
+        ScreenState.of(driver).invalidate();
+        Instrumentation.record(getName(), DISMISS_KEYBOARD, start, start, System.nanoTime());
         return this;
     }
 
+    /**
+     * The outcome of the precondition step of an action, see {@link #prepare(String)}
+     */
+    @Value
+    private static class Precondition {
+
+        /**
+         * The resolved element, null if it is not displayed
+         */
+        WebElement element;
+
+        boolean displayed;
+
+        long startNanos;
+
+        long readyNanos;
+
+        long startCommands;
+    }
 }
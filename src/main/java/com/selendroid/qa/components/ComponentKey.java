@@ -0,0 +1,25 @@
+package com.selendroid.qa.components;
+
+/**
+ * A key of a component in an elements class. The keys are generated at build time by the
+ * {@link com.selendroid.qa.processor.ComponentRegistryProcessor} as an enum named after the
+ * elements class e.g. LoginElementsComponents, so unknown component names fail to compile
+ * and components are looked up by ordinal without any hashing
+ *
+ * @author sanjay
+ *
+ */
+public interface ComponentKey {
+
+    /**
+     * The name of the field in the elements class
+     * @return the field name
+     */
+    String getFieldName();
+
+    /**
+     * The position of the field in the elements class
+     * @return the ordinal of the key
+     */
+    int ordinal();
+}
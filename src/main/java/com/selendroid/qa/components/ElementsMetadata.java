@@ -0,0 +1,157 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.CacheScope;
+import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.processor.ComponentRegistryProcessor;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.CacheLookup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.selendroid.qa.utils.PropertyUtil.getOrDefault;
+
+/**
+ * The reflective metadata of an elements class, resolved once per class and shared by every
+ * instance and thread: the private fields, a getter handle for each, the By built from the
+ * field annotations per platform and the lookup cache scope
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+final class ElementsMetadata {
+
+    private static final Map<Class<?>, ElementsMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    @Getter
+    private final List<ElementField> fields;
+
+    /**
+     * The registry generated at build time for the elements class, or null if there is none
+     */
+    @Getter
+    private final Class<?> registry;
+
+    @Getter
+    private final ComponentKey[] keys;
+
+    private ElementsMetadata(Class<?> elementsClass) {
+        List<ElementField> list = new ArrayList<>();
+        LookupCache lookupCache = elementsClass.getAnnotation(LookupCache.class);
+        CacheScope scope = lookupCache != null ? lookupCache.value() :
+                CacheScope.valueOf(getOrDefault("elements.cache.scope", CacheScope.SCREEN.name()).toUpperCase());
+
+        for(Field field: elementsClass.getDeclaredFields()) {
+            if(Modifier.isPrivate(field.getModifiers()) && !Modifier.isStatic(field.getModifiers())) {
+                list.add(new ElementField(field, scope));
+            }
+        }
+
+        this.fields = Collections.unmodifiableList(list);
+        this.registry = findRegistry(elementsClass);
+        this.keys = registry == null ? new ComponentKey[0] : (ComponentKey[]) registry.getEnumConstants();
+    }
+
+    private static Class<?> findRegistry(Class<?> elementsClass) {
+        try {
+            Class<?> registry = Class.forName(elementsClass.getName() + ComponentRegistryProcessor.REGISTRY_SUFFIX,
+                    true, elementsClass.getClassLoader());
+            if(registry.isEnum() && ComponentKey.class.isAssignableFrom(registry)) {
+                return registry;
+            }
+        } catch (ClassNotFoundException e) {
+            log.debug("No component registry generated for {}", elementsClass);
+        }
+        return null;
+    }
+
+    /**
+     * Get the metadata of an elements class, resolving it the first time
+     * @param elementsClass - the elements class
+     * @return the metadata of the class
+     */
+    static ElementsMetadata of(Class<?> elementsClass) {
+        return CACHE.computeIfAbsent(elementsClass, ElementsMetadata::new);
+    }
+
+    /**
+     * A private field of an elements class
+     */
+    static final class ElementField {
+
+        @Getter
+        private final String name;
+
+        private final Field field;
+
+        private final MethodHandle getter;
+
+        private final Map<String, By> bys = new ConcurrentHashMap<>();
+
+        /**
+         * The lookup cache scope of the field, see {@link LookupCache}
+         */
+        @Getter
+        private final CacheScope scope;
+
+        private ElementField(Field field, CacheScope classScope) {
+            this.name = field.getName();
+            this.field = field;
+            LookupCache lookupCache = field.getAnnotation(LookupCache.class);
+            if(lookupCache != null) {
+                this.scope = lookupCache.value();
+            } else if(field.isAnnotationPresent(CacheLookup.class)) {
+                this.scope = CacheScope.JOURNEY;
+            } else {
+                this.scope = classScope;
+            }
+            try {
+                field.setAccessible(true);
+                this.getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new FrameworkException("Failed to access field " + field, e);
+            }
+        }
+
+        /**
+         * Read the value of this field
+         * @param instance - the elements instance
+         * @return the field value
+         */
+        Object read(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new FrameworkException("Failed to read field " + name, e);
+            }
+        }
+
+        /**
+         * Get the By built from the field annotations for the platform and automation
+         * @param platform - the session platform name
+         * @param automation - the session automation name
+         * @return the By of the field
+         */
+        By getBy(String platform, String automation) {
+            return bys.computeIfAbsent(platform + '/' + automation, key -> {
+                DefaultElementByBuilder byBuilder = new DefaultElementByBuilder(platform, automation);
+                byBuilder.setAnnotated(field);
+                return byBuilder.buildBy();
+            });
+        }
+    }
+}
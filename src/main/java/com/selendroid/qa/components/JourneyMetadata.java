@@ -0,0 +1,106 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.PlatformType;
+import com.selendroid.qa.exception.FrameworkException;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The reflective metadata of a journey class, resolved once per class and shared by every
+ * instance and thread: the {@link Elements} target per platform, the constructor of the
+ * elements class and the {@link SessionReset} strategy
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@SuppressWarnings("rawtypes")
+final class JourneyMetadata {
+
+    private static final Map<Class<?>, JourneyMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<PlatformType, Class<? extends BaseElements>> elementsClasses = new EnumMap<>(PlatformType.class);
+
+    private final Map<Class<?>, MethodHandle> constructors = new ConcurrentHashMap<>();
+
+    @Getter
+    private final SessionReset reset;
+
+    private JourneyMetadata(Class<?> journeyClass) {
+        Elements marker = journeyClass.getAnnotation(Elements.class);
+
+        if(marker == null) {
+            String msg = "Expected @Elements annotation on Screen class";
+            log.error(msg);
+            throw new FrameworkException(msg);
+        }
+
+        if(marker.elements().equals(BaseElements.class)) {
+            // do we have individual iOS or Android elements?
+            elementsClasses.put(PlatformType.ANDROID, marker.androidElements());
+            elementsClasses.put(PlatformType.IOS, marker.iosElements());
+        } else {
+            // just take combined merged elements
+            elementsClasses.put(PlatformType.ANDROID, marker.elements());
+            elementsClasses.put(PlatformType.IOS, marker.elements());
+        }
+
+        this.reset = journeyClass.getAnnotation(SessionReset.class);
+    }
+
+    /**
+     * Get the metadata of a journey class, resolving it the first time
+     * @param journeyClass - the journey class
+     * @return the metadata of the class
+     */
+    static JourneyMetadata of(Class<?> journeyClass) {
+        return CACHE.computeIfAbsent(journeyClass, JourneyMetadata::new);
+    }
+
+    /**
+     * Create a new instance of the elements class for the platform
+     * @param platform - the active platform
+     * @return a new, not yet initialized, elements instance
+     */
+    BaseElements newElements(PlatformType platform) {
+        Class<? extends BaseElements> elementsClass = elementsClasses.get(platform);
+
+        if(elementsClass == null) {
+            throw new IllegalArgumentException("Un-supported platform");
+        }
+
+        if(elementsClass.equals(BaseElements.class)) {
+            throw new IllegalArgumentException("Expected that you provide an elements class");
+        }
+
+        try {
+            return (BaseElements) getConstructor(elementsClass).invoke();
+        } catch (Throwable e) {
+            throw new FrameworkException("Failed to create elements " + elementsClass, e);
+        }
+    }
+
+    /**
+     * Get the handle of the no-arg constructor of an elements class, looked up the first time
+     * @param elementsClass - the elements class
+     * @return the constructor handle
+     */
+    MethodHandle getConstructor(Class<?> elementsClass) {
+        return constructors.computeIfAbsent(elementsClass, JourneyMetadata::findConstructor);
+    }
+
+    private static MethodHandle findConstructor(Class<?> elementsClass) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(elementsClass, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new FrameworkException("Expected a public no-arg constructor on " + elementsClass, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.CacheScope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how long the components of an elements class, or a single field, keep the element
+ * their locator resolved to. Without it fields use elements.cache.scope from application.properties,
+ * fields annotated with CacheLookup are kept for the whole journey.
+ * Example:
+ *
+ * <pre>
+ * LookupCache(CacheScope.JOURNEY)
+ * public class LoginElements extends BaseElements&lt;Component&gt; {
+ *
+ *     LookupCache(CacheScope.ACTION)
+ *     AndroidFindBy(id = "errorMessage")
+ *     private MobileElement error;
+ * }
+ * </pre>
+ * @author sanjay
+ *
+ */
+@Target({ElementType.TYPE, ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LookupCache {
+
+    /**
+     * The cache scope
+     */
+    CacheScope value() default CacheScope.SCREEN;
+}
@@ -0,0 +1,39 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.ResetType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects how a journey resets the app between test methods whilst the session is reused.
+ * Journeys without this annotation fully relaunch the app.
+ * Example:
+ *
+ * <pre>
+ * Elements(elements = LoginElements.class)
+ * SessionReset(ResetType.TERMINATE_ACTIVATE)
+ * public class LoginJourney extends BaseJourney {
+ * }
+ * </pre>
+ * @author sanjay
+ *
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SessionReset {
+
+    /**
+     * The reset strategy
+     */
+    ResetType value() default ResetType.RELAUNCH;
+
+    /**
+     * The deep link to the home screen, required for {@link ResetType#DEEP_LINK}
+     */
+    String deepLink() default "";
+}
@@ -0,0 +1,35 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.VerifyType;
+import lombok.Value;
+
+/**
+ * A single verification of a component, used to verify several components of a screen
+ * together with {@link BaseJourney#verifyAll(Verification...)}
+ *
+ * @author sanjay
+ *
+ */
+@Value(staticConstructor = "of")
+public class Verification {
+
+    /**
+     * The component name, i.e. the field name in the elements class
+     */
+    private final String name;
+
+    private final VerifyType type;
+
+    private final String expected;
+
+    /**
+     * Create a verification for a component from the generated registry
+     * @param key - the component key
+     * @param type - the verification type
+     * @param expected - the expected value
+     * @return the verification
+     */
+    public static Verification of(ComponentKey key, VerifyType type, String expected) {
+        return of(key.getFieldName(), type, expected);
+    }
+}
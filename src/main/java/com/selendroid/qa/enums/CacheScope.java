@@ -0,0 +1,32 @@
+package com.selendroid.qa.enums;
+
+/**
+ * How long a component keeps the element its locator resolved to before looking it up again.
+ * A cached element that went stale is always looked up again once
+ *
+ * @author sanjay
+ *
+ */
+public enum CacheScope {
+
+    /**
+     * Look the element up on every call, like the PageFactory proxy
+     */
+    NONE,
+
+    /**
+     * Keep the element for the duration of one component action e.g. a click
+     */
+    ACTION,
+
+    /**
+     * Keep the element until an action changes the screen
+     */
+    SCREEN,
+
+    /**
+     * Keep the element until the journey is invalidated, for elements that are never re-rendered
+     */
+    JOURNEY
+
+}
@@ -0,0 +1,21 @@
+package com.selendroid.qa.enums;
+
+/**
+ * What a bounded background queue does when it's full
+ *
+ * @author sanjay
+ *
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Block the producer until there is room in the queue
+     */
+    BLOCK,
+
+    /**
+     * Drop the oldest queued item to make room for the new one
+     */
+    DROP_OLDEST
+
+}
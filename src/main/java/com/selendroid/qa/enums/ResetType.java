@@ -0,0 +1,32 @@
+package com.selendroid.qa.enums;
+
+/**
+ * The strategies used to bring the app back to its initial state between test methods
+ * whilst reusing the same Appium session
+ *
+ * @author sanjay
+ *
+ */
+public enum ResetType {
+
+    /**
+     * Close and launch the app again, the slowest but most thorough reset
+     */
+    RELAUNCH,
+
+    /**
+     * Terminate the app process and activate it again
+     */
+    TERMINATE_ACTIVATE,
+
+    /**
+     * Clear the app data and activate it again, falls back to relaunch on iOS
+     */
+    CLEAR_DATA,
+
+    /**
+     * Open a deep link that lands on the home screen of the app
+     */
+    DEEP_LINK
+
+}
@@ -0,0 +1,76 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.enums.LocatorType;
+import io.appium.java_client.MobileBy;
+import lombok.Value;
+import org.openqa.selenium.By;
+
+import java.util.Optional;
+
+/**
+ * A locator type and value pair, extracted from the Selenium By built for an element field.
+ * Only plain (not chained) id, accessibility id, class name and xpath locators are supported
+ *
+ * @author sanjay
+ *
+ */
+@Value
+public class Locator {
+
+    private static final String BY_PREFIX = "By.";
+    private static final String CHAINED_PREFIX = "By.chained({";
+    private static final String CHAINED_SUFFIX = "})";
+
+    private final LocatorType type;
+
+    private final String value;
+
+    /**
+     * Extract the locator from a By, PageFactory wraps single locators in a chained By
+     * @param by - the By to convert
+     * @return the locator or empty if the By is not supported
+     */
+    public static Optional<Locator> from(By by) {
+        if(by == null) {
+            return Optional.empty();
+        }
+
+        String description = by.toString();
+
+        if(description.startsWith(CHAINED_PREFIX) && description.endsWith(CHAINED_SUFFIX)) {
+            description = description.substring(CHAINED_PREFIX.length(), description.length() - CHAINED_SUFFIX.length());
+            if(description.contains("," + BY_PREFIX) || description.contains(", " + BY_PREFIX)) {
+                return Optional.empty();
+            }
+        }
+
+        for(LocatorType type: new LocatorType[] {LocatorType.ID, LocatorType.ACCESSIBILITYID,
+                LocatorType.CLASSNAME, LocatorType.XPATH}) {
+            String prefix = BY_PREFIX + type.getLocatorType() + ": ";
+            if(description.startsWith(prefix)) {
+                return Optional.of(new Locator(type, description.substring(prefix.length())));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Convert this locator back to a By the driver can search with
+     * @return the By for this locator
+     */
+    public By toBy() {
+        switch(type) {
+            case ID:
+                return By.id(value);
+            case ACCESSIBILITYID:
+                return MobileBy.AccessibilityId(value);
+            case CLASSNAME:
+                return By.className(value);
+            case XPATH:
+                return By.xpath(value);
+            default:
+                throw new IllegalArgumentException("Unsupported locator type " + type);
+        }
+    }
+}
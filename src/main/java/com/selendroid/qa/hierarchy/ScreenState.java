@@ -0,0 +1,75 @@
+package com.selendroid.qa.hierarchy;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.ios.IOSDriver;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the state of the screen for a driver. Every action that may change the screen
+ * (click, typing, gestures, navigation) moves the screen to a new generation, which discards
+ * the snapshot of the UI hierarchy taken for the previous generation
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@SuppressWarnings("rawtypes")
+public class ScreenState {
+
+    private static final Map<AppiumDriver, ScreenState> STATES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile UiHierarchy snapshot;
+
+    /**
+     * Get the screen state of a driver
+     * @param driver - the current driver
+     * @return the screen state for the driver
+     */
+    public static ScreenState of(AppiumDriver driver) {
+        return STATES.computeIfAbsent(driver, key -> new ScreenState());
+    }
+
+    /**
+     * The current generation of the screen, it changes after every action
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Mark the screen as changed, called after every action on the driver
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Fetch the page source once and keep it until the next action
+     * @param driver - the current driver
+     * @return the snapshot of the screen
+     */
+    public UiHierarchy capture(AppiumDriver driver) {
+        UiHierarchy hierarchy = UiHierarchy.parse(driver.getPageSource(), driver instanceof IOSDriver);
+        snapshot = hierarchy;
+        log.debug("Captured snapshot for screen generation {}", generation.get());
+        return hierarchy;
+    }
+
+    /**
+     * Get the snapshot of the current screen generation
+     * @return the snapshot, or empty if none was captured since the last action
+     */
+    public Optional<UiHierarchy> getSnapshot() {
+        return Optional.ofNullable(snapshot);
+    }
+}
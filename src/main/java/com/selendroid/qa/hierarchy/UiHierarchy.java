@@ -0,0 +1,214 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.enums.LocatorType;
+import com.selendroid.qa.enums.VerifyType;
+import com.selendroid.qa.exception.FrameworkException;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory copy of the UI hierarchy of the screen, parsed from a single page source call.
+ * Elements can be looked up by id, accessibility id, class name and xpath without any
+ * round trip to the Appium server
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class UiHierarchy {
+
+    private static final String ANDROID_ID = "resource-id";
+
+    /**
+     * The only resource ids UiAutomator2 resolves with By.id, e.g. io.selendroid.testapp:id/my_text_field.
+     * Webview and React Native nodes can carry ids without the package prefix
+     */
+    private static final Pattern ANDROID_RESOURCE_ID = Pattern.compile("[^\\s:/]+:id/\\S+");
+    private static final String ANDROID_ACCESSIBILITY = "content-desc";
+    private static final String ANDROID_CLASS = "class";
+    private static final String IOS_NAME = "name";
+    private static final String IOS_TYPE = "type";
+
+    @Getter
+    private final Document document;
+
+    private final boolean isIOS;
+
+    private final Map<String, List<Element>> byId = new HashMap<>();
+
+    private final Map<String, List<Element>> byAccessibility = new HashMap<>();
+
+    private final Map<String, List<Element>> byClass = new HashMap<>();
+
+    private final Map<String, List<Element>> byXpath = new HashMap<>();
+
+    private UiHierarchy(Document document, boolean isIOS) {
+        this.document = document;
+        this.isIOS = isIOS;
+        index(document.getDocumentElement());
+    }
+
+    /**
+     * Parse the page source returned by the Appium driver
+     * @param pageSource - the page source xml
+     * @param isIOS - true for an XCUITest page source, false for UiAutomator2
+     * @return the parsed hierarchy
+     */
+    public static UiHierarchy parse(String pageSource, boolean isIOS) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+            return new UiHierarchy(document, isIOS);
+
+        } catch (Exception e) {
+            log.error("Failed to parse the page source", e);
+            throw new FrameworkException(e);
+        }
+    }
+
+    private void index(Element element) {
+        if(isIOS) {
+            add(byId, element.getAttribute(IOS_NAME), element);
+            add(byAccessibility, element.getAttribute(IOS_NAME), element);
+            add(byClass, element.getAttribute(IOS_TYPE), element);
+        } else {
+            String id = element.getAttribute(ANDROID_ID);
+            add(byId, id, element);
+            // UiAutomator2 also matches ids without the package prefix
+            int separator = id.indexOf(":id/");
+            if(separator > 0) {
+                add(byId, id.substring(separator + ":id/".length()), element);
+            }
+            add(byAccessibility, element.getAttribute(ANDROID_ACCESSIBILITY), element);
+            add(byClass, element.getAttribute(ANDROID_CLASS), element);
+        }
+
+        NodeList children = element.getChildNodes();
+        for(int i = 0; i < children.getLength(); i++) {
+            Node child = children.item(i);
+            if(child instanceof Element) {
+                index((Element) child);
+            }
+        }
+    }
+
+    private static void add(Map<String, List<Element>> index, String key, Element element) {
+        if(!key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+        }
+    }
+
+    /**
+     * Find the first element matching the locator
+     * @param locator - the locator of the element
+     * @return the element or empty if it's not on the screen
+     */
+    public Optional<Element> find(Locator locator) {
+        List<Element> elements = findAll(locator);
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.get(0));
+    }
+
+    /**
+     * Find all the elements matching the locator, in document order
+     * @param locator - the locator of the elements
+     * @return the matching elements
+     */
+    public List<Element> findAll(Locator locator) {
+        switch(locator.getType()) {
+            case ID:
+                return byId.getOrDefault(locator.getValue(), Collections.emptyList());
+            case ACCESSIBILITYID:
+                return byAccessibility.getOrDefault(locator.getValue(), Collections.emptyList());
+            case CLASSNAME:
+                return byClass.getOrDefault(locator.getValue(), Collections.emptyList());
+            case XPATH:
+                synchronized(byXpath) {
+                    return byXpath.computeIfAbsent(locator.getValue(), this::evaluate);
+                }
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private List<Element> evaluate(String xpath) {
+        try {
+            NodeList nodes = (NodeList) XPathCache.compile(xpath).evaluate(document, XPathConstants.NODESET);
+            List<Element> elements = new ArrayList<>(nodes.getLength());
+            for(int i = 0; i < nodes.getLength(); i++) {
+                if(nodes.item(i) instanceof Element) {
+                    elements.add((Element) nodes.item(i));
+                }
+            }
+            return elements;
+
+        } catch (XPathExpressionException e) {
+            log.warn("Failed to evaluate xpath {} against the page source", xpath, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Find a locator that the Appium server resolves faster than xpath and that matches only
+     * this element, i.e. a unique id or accessibility id. On Android only fully qualified
+     * resource ids (package:id/name) are used as id
+     * @param element - the element from this hierarchy
+     * @return the locator or empty if the element has no unique id or accessibility id
+     */
+    public Optional<Locator> toUniqueLocator(Element element) {
+        String id = element.getAttribute(isIOS ? IOS_NAME : ANDROID_ID);
+        if(isUnique(byId, id) && (isIOS || ANDROID_RESOURCE_ID.matcher(id).matches())) {
+            return Optional.of(new Locator(LocatorType.ID, id));
+        }
+
+        String accessibility = element.getAttribute(isIOS ? IOS_NAME : ANDROID_ACCESSIBILITY);
+        if(isUnique(byAccessibility, accessibility)) {
+            return Optional.of(new Locator(LocatorType.ACCESSIBILITYID, accessibility));
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean isUnique(Map<String, List<Element>> index, String key) {
+        return !key.isEmpty() && index.getOrDefault(key, Collections.emptyList()).size() == 1;
+    }
+
+    /**
+     * Read the value a verification checks, the same way the driver reports it for a live element
+     * @param element - the element from this hierarchy
+     * @param type - the verification type
+     * @return the value of the attribute
+     */
+    public String getValue(Element element, VerifyType type) {
+        switch(type) {
+            case TEXT:
+                if(isIOS) {
+                    return element.hasAttribute("value") ? element.getAttribute("value") : element.getAttribute("label");
+                }
+                return element.getAttribute("text");
+            case TAG:
+                return element.getAttribute(isIOS ? IOS_TYPE : ANDROID_CLASS);
+            default:
+                return element.getAttribute(type.name().toLowerCase());
+        }
+    }
+}
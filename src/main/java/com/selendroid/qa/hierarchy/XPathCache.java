@@ -0,0 +1,52 @@
+package com.selendroid.qa.hierarchy;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches compiled xpath expressions per locator string. Compiled expressions are not thread safe,
+ * so every thread keeps its own bounded, least recently used cache
+ *
+ * @author sanjay
+ *
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class XPathCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    private static final ThreadLocal<Map<String, XPathExpression>> CACHE = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /**
+     * Get the compiled expression for the xpath, compiling it the first time it's used on this thread
+     * @param xpath - the xpath expression
+     * @return the compiled expression
+     * @throws XPathExpressionException if the xpath is invalid
+     */
+    public static XPathExpression compile(String xpath) throws XPathExpressionException {
+        Map<String, XPathExpression> cache = CACHE.get();
+        XPathExpression expression = cache.get(xpath);
+        if(expression == null) {
+            expression = XPATH.get().compile(xpath);
+            cache.put(xpath, expression);
+        }
+        return expression;
+    }
+}
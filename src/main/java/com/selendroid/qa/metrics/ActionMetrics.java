@@ -0,0 +1,73 @@
+package com.selendroid.qa.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latencies of one action of one component in one journey. Wait is the time spent waiting
+ * for the element, round trip the time spent on the driver commands of the action itself and
+ * total the time of the whole action. When the HTTP commands are profiled the number of commands
+ * sent by the action is counted too
+ *
+ * @author sanjay
+ *
+ */
+@Getter
+public class ActionMetrics {
+
+    private final String journey;
+
+    private final String component;
+
+    private final String action;
+
+    private final LatencyHistogram wait = new LatencyHistogram();
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    /**
+     * The driver commands sent by the profiled executions of the action
+     */
+    private final LongAdder commands = new LongAdder();
+
+    /**
+     * The executions of the action whose commands were counted
+     */
+    private final LongAdder profiled = new LongAdder();
+
+    ActionMetrics(String journey, String component, String action) {
+        this.journey = journey;
+        this.component = component;
+        this.action = action;
+    }
+
+    /**
+     * Record one execution of the action
+     * @param waitNanos - the time spent waiting
+     * @param roundTripNanos - the time spent on the driver commands
+     * @param totalNanos - the time of the whole action
+     */
+    public void record(long waitNanos, long roundTripNanos, long totalNanos) {
+        record(waitNanos, roundTripNanos, totalNanos, -1);
+    }
+
+    /**
+     * Record one execution of the action and the number of driver commands it sent
+     * @param waitNanos - the time spent waiting
+     * @param roundTripNanos - the time spent on the driver commands
+     * @param totalNanos - the time of the whole action
+     * @param commandCount - the number of commands sent, negative if they were not counted
+     */
+    public void record(long waitNanos, long roundTripNanos, long totalNanos, long commandCount) {
+        wait.record(waitNanos);
+        roundTrip.record(roundTripNanos);
+        total.record(totalNanos);
+        if(commandCount >= 0) {
+            commands.add(commandCount);
+            profiled.increment();
+        }
+    }
+}
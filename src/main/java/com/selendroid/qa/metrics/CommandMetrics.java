@@ -0,0 +1,49 @@
+package com.selendroid.qa.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The HTTP commands sent to the Appium server for one command (method and normalized path)
+ * in one journey
+ *
+ * @author sanjay
+ *
+ */
+@Getter
+public class CommandMetrics {
+
+    private final String journey;
+
+    private final String command;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final AtomicLong requestBytes = new AtomicLong();
+
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    CommandMetrics(String journey, String command) {
+        this.journey = journey;
+        this.command = command;
+    }
+
+    /**
+     * Record one command
+     * @param requestBytes - the size of the request payload
+     * @param responseBytes - the size of the response payload
+     * @param status - the HTTP status, or -1 if no response was received
+     * @param latencyNanos - the time until the response was received
+     */
+    public void record(long requestBytes, long responseBytes, int status, long latencyNanos) {
+        latency.record(latencyNanos);
+        this.requestBytes.addAndGet(requestBytes);
+        this.responseBytes.addAndGet(responseBytes);
+        if(status < 200 || status >= 400) {
+            errors.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.selendroid.qa.metrics;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.selendroid.qa.reporting.EventLog;
+import com.selendroid.qa.utils.ArtifactRoot;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import static com.selendroid.qa.utils.PropertyUtil.getBoolean;
+
+/**
+ * Records the latency of component and gesture actions per journey, component and action, and of the
+ * HTTP commands sent to the Appium server per journey and command when they are profiled.
+ * Recording an action that was seen before only does map lookups and atomic increments, at the
+ * end of the suite the percentiles are added to the report and written as a Prometheus text file
+ * (metrics.prom in the run directory of the {@link ArtifactRoot}).
+ *
+ * Disable it with metrics.enabled=false
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Instrumentation {
+
+    private static final boolean ENABLED = getBoolean("metrics.enabled", true);
+
+    private static final boolean PROFILED = getBoolean("appium.http.profile", false);
+
+    private static final String NO_JOURNEY = "none";
+
+    private static final String METRIC = "selendroid_action_duration_seconds";
+
+    private static final String COMMAND_METRIC = "selendroid_http_command_duration_seconds";
+
+    private static final String METRICS_FILE = "metrics.prom";
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static final Map<String, Map<String, Map<String, ActionMetrics>>> METRICS = new ConcurrentHashMap<>();
+
+    private static final Map<String, Map<String, CommandMetrics>> COMMANDS = new ConcurrentHashMap<>();
+
+    private static final String COMMANDS_METRIC = "selendroid_action_commands_total";
+
+    /**
+     * The number of profiled commands sent by each thread, the commands are sent on the thread of the action
+     */
+    private static final ThreadLocal<long[]> THREAD_COMMANDS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Check if actions are instrumented
+     * @return true if actions are instrumented
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record an action of the current journey from its timestamps (System.nanoTime)
+     * @param component - the component name
+     * @param action - the action e.g. click
+     * @param startNanos - when the action started
+     * @param readyNanos - when the wait was over and the action itself started
+     * @param endNanos - when the action ended
+     */
+    public static void record(String component, String action, long startNanos, long readyNanos, long endNanos) {
+        record(component, action, startNanos, readyNanos, endNanos, -1);
+    }
+
+    /**
+     * Record an action of the current journey from its timestamps (System.nanoTime) together with the
+     * number of driver commands it sent, see {@link #getCommandCount()}
+     * @param component - the component name
+     * @param action - the action e.g. click
+     * @param startNanos - when the action started
+     * @param readyNanos - when the wait was over and the action itself started
+     * @param endNanos - when the action ended
+     * @param commands - the number of commands the action sent, ignored unless the commands are profiled
+     */
+    public static void record(String component, String action, long startNanos, long readyNanos, long endNanos,
+            long commands) {
+        EventLog.markAction(action);
+        if(!ENABLED) {
+            return;
+        }
+
+        get(currentJourney(), component, action).record(readyNanos - startNanos, endNanos - readyNanos,
+                endNanos - startNanos, PROFILED ? commands : -1);
+        EventLog.record(component, action, endNanos - startNanos, null);
+    }
+
+    /**
+     * Record an HTTP command sent to the Appium server by the current journey
+     * @param command - the command e.g. POST /session/:sessionId/element
+     * @param requestBytes - the size of the request payload
+     * @param responseBytes - the size of the response payload
+     * @param status - the HTTP status, or -1 if no response was received
+     * @param latencyNanos - the time until the response was received
+     */
+    public static void recordCommand(String command, long requestBytes, long responseBytes, int status, long latencyNanos) {
+        if(!ENABLED) {
+            return;
+        }
+
+        String journey = currentJourney();
+        Map<String, CommandMetrics> commands = COMMANDS.get(journey);
+        if(commands == null) {
+            commands = COMMANDS.computeIfAbsent(journey, key -> new ConcurrentHashMap<>());
+        }
+
+        CommandMetrics metrics = commands.get(command);
+        if(metrics == null) {
+            metrics = commands.computeIfAbsent(command, key -> new CommandMetrics(journey, key));
+        }
+        metrics.record(requestBytes, responseBytes, status, latencyNanos);
+        THREAD_COMMANDS.get()[0]++;
+    }
+
+    /**
+     * The number of profiled commands the current thread has sent so far, the difference before and
+     * after an action is the number of round trips of the action. Always 0 unless appium.http.profile=true
+     * @return the number of commands sent by the current thread
+     */
+    public static long getCommandCount() {
+        return THREAD_COMMANDS.get()[0];
+    }
+
+    /**
+     * Get the metrics of all profiled HTTP commands
+     * @return the metrics sorted by journey and command
+     */
+    public static List<CommandMetrics> getAllCommands() {
+        List<CommandMetrics> all = new ArrayList<>();
+        COMMANDS.values().forEach(commands -> all.addAll(commands.values()));
+        all.sort(Comparator.comparing(CommandMetrics::getJourney).thenComparing(CommandMetrics::getCommand));
+        return all;
+    }
+
+    /**
+     * Get the metrics of an action, created on first use
+     * @param journey - the journey class name
+     * @param component - the component name
+     * @param action - the action
+     * @return the metrics of the action
+     */
+    public static ActionMetrics get(String journey, String component, String action) {
+        Map<String, Map<String, ActionMetrics>> components = METRICS.get(journey);
+        if(components == null) {
+            components = METRICS.computeIfAbsent(journey, key -> new ConcurrentHashMap<>());
+        }
+
+        Map<String, ActionMetrics> actions = components.get(component);
+        if(actions == null) {
+            actions = components.computeIfAbsent(component, key -> new ConcurrentHashMap<>());
+        }
+
+        ActionMetrics metrics = actions.get(action);
+        if(metrics == null) {
+            metrics = actions.computeIfAbsent(action, key -> new ActionMetrics(journey, component, key));
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the metrics of all recorded actions
+     * @return the metrics sorted by journey, component and action
+     */
+    public static List<ActionMetrics> getAll() {
+        List<ActionMetrics> all = new ArrayList<>();
+        METRICS.values().forEach(components -> components.values().forEach(actions -> all.addAll(actions.values())));
+        all.sort(Comparator.comparing(ActionMetrics::getJourney)
+                .thenComparing(ActionMetrics::getComponent)
+                .thenComparing(ActionMetrics::getAction));
+        return all;
+    }
+
+    /**
+     * Add the percentiles to the report and write the Prometheus text file
+     * @param report - the extent report
+     */
+    public static void export(ExtentReports report) {
+        List<ActionMetrics> all = getAll();
+        List<CommandMetrics> commands = getAllCommands();
+        if(!ENABLED || all.isEmpty() && commands.isEmpty()) {
+            return;
+        }
+
+        exportToReport(report, all);
+        exportCommandsToReport(report, commands);
+
+        try {
+            String text = toPrometheus(all) + toPrometheusCommands(commands);
+            ArtifactRoot.getInstance().write(METRICS_FILE, text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Failed to write the action metrics", e);
+        }
+    }
+
+    /**
+     * Format the metrics in the Prometheus text format as summaries in seconds
+     * @param all - the metrics to format
+     * @return the Prometheus text
+     */
+    public static String toPrometheus(List<ActionMetrics> all) {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP ").append(METRIC).append(" Latency of component and gesture actions\n");
+        text.append("# TYPE ").append(METRIC).append(" summary\n");
+
+        for(ActionMetrics metrics: all) {
+            appendSummary(text, metrics, "wait", metrics.getWait());
+            appendSummary(text, metrics, "round_trip", metrics.getRoundTrip());
+            appendSummary(text, metrics, "total", metrics.getTotal());
+        }
+
+        if(PROFILED) {
+            text.append("# HELP ").append(COMMANDS_METRIC).append(" Driver commands sent by component and gesture actions\n");
+            text.append("# TYPE ").append(COMMANDS_METRIC).append(" counter\n");
+            for(ActionMetrics metrics: all) {
+                text.append(COMMANDS_METRIC).append('{').append(actionLabels(metrics)).append("} ")
+                        .append(metrics.getCommands().sum()).append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Format the HTTP command metrics in the Prometheus text format
+     * @param all - the metrics to format
+     * @return the Prometheus text
+     */
+    public static String toPrometheusCommands(List<CommandMetrics> all) {
+        StringBuilder text = new StringBuilder();
+        if(all.isEmpty()) {
+            return text.toString();
+        }
+
+        text.append("# HELP ").append(COMMAND_METRIC).append(" Latency of the HTTP commands sent to the Appium server\n");
+        text.append("# TYPE ").append(COMMAND_METRIC).append(" summary\n");
+        for(CommandMetrics metrics: all) {
+            appendSummary(text, COMMAND_METRIC, commandLabels(metrics), metrics.getLatency());
+        }
+
+        appendCounters(text, "selendroid_http_command_request_bytes_total", "Request payload bytes", all,
+                metrics -> metrics.getRequestBytes().get());
+        appendCounters(text, "selendroid_http_command_response_bytes_total", "Response payload bytes", all,
+                metrics -> metrics.getResponseBytes().get());
+        appendCounters(text, "selendroid_http_command_errors_total", "Commands that failed or got an error status", all,
+                metrics -> metrics.getErrors().get());
+        return text.toString();
+    }
+
+    private static void appendCounters(StringBuilder text, String name, String help, List<CommandMetrics> all,
+            ToLongFunction<CommandMetrics> value) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(" counter\n");
+        for(CommandMetrics metrics: all) {
+            text.append(name).append('{').append(commandLabels(metrics)).append("} ")
+                    .append(value.applyAsLong(metrics)).append('\n');
+        }
+    }
+
+    private static String commandLabels(CommandMetrics metrics) {
+        return "journey=\"" + escape(metrics.getJourney()) + "\",command=\"" + escape(metrics.getCommand()) + '"';
+    }
+
+    private static void appendSummary(StringBuilder text, ActionMetrics metrics, String phase, LatencyHistogram histogram) {
+        appendSummary(text, METRIC, actionLabels(metrics) + ",phase=\"" + phase + '"', histogram);
+    }
+
+    private static String actionLabels(ActionMetrics metrics) {
+        return "journey=\"" + escape(metrics.getJourney()) +
+                "\",component=\"" + escape(metrics.getComponent()) +
+                "\",action=\"" + escape(metrics.getAction()) + '"';
+    }
+
+    private static void appendSummary(StringBuilder text, String metric, String labels, LatencyHistogram histogram) {
+        for(double percentile: PERCENTILES) {
+            text.append(metric).append('{').append(labels).append(",quantile=\"").append(percentile / 100).append("\"} ")
+                    .append(seconds(histogram.getPercentile(percentile))).append('\n');
+        }
+        text.append(metric).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSum())).append('\n');
+        text.append(metric).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static void exportToReport(ExtentReports report, List<ActionMetrics> all) {
+        if(all.isEmpty()) {
+            return;
+        }
+
+        String[][] table = new String[all.size() + 1][];
+        table[0] = new String[] {"Journey", "Component", "Action", "Count",
+                "p50 ms", "p90 ms", "p99 ms", "Max ms", "Wait p50 ms", "Round trip p50 ms", "Commands / action"};
+
+        for(int i = 0; i < all.size(); i++) {
+            ActionMetrics metrics = all.get(i);
+            LatencyHistogram total = metrics.getTotal();
+            table[i + 1] = new String[] {metrics.getJourney(), metrics.getComponent(), metrics.getAction(),
+                    String.valueOf(total.getCount()),
+                    millis(total.getPercentile(50)), millis(total.getPercentile(90)),
+                    millis(total.getPercentile(99)), millis(total.getMax()),
+                    millis(metrics.getWait().getPercentile(50)), millis(metrics.getRoundTrip().getPercentile(50)),
+                    metrics.getProfiled().sum() == 0 ? "-" :
+                            String.format("%.1f", (double) metrics.getCommands().sum() / metrics.getProfiled().sum())};
+        }
+
+        ExtentTest test = report.createTest("Action latency");
+        test.info(MarkupHelper.createTable(table));
+    }
+
+    private static void exportCommandsToReport(ExtentReports report, List<CommandMetrics> all) {
+        if(all.isEmpty()) {
+            return;
+        }
+
+        String[][] table = new String[all.size() + 1][];
+        table[0] = new String[] {"Journey", "Command", "Count", "p50 ms", "p90 ms", "p99 ms", "Max ms",
+                "Request bytes", "Response bytes", "Errors"};
+
+        for(int i = 0; i < all.size(); i++) {
+            CommandMetrics metrics = all.get(i);
+            LatencyHistogram latency = metrics.getLatency();
+            table[i + 1] = new String[] {metrics.getJourney(), metrics.getCommand(),
+                    String.valueOf(latency.getCount()),
+                    millis(latency.getPercentile(50)), millis(latency.getPercentile(90)),
+                    millis(latency.getPercentile(99)), millis(latency.getMax()),
+                    String.valueOf(metrics.getRequestBytes().get()), String.valueOf(metrics.getResponseBytes().get()),
+                    String.valueOf(metrics.getErrors().get())};
+        }
+
+        ExtentTest test = report.createTest("HTTP commands");
+        test.info(MarkupHelper.createTable(table));
+    }
+
+    private static String currentJourney() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? NO_JOURNEY : result.getTestClass().getName();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+}
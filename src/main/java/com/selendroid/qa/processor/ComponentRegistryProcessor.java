@@ -0,0 +1,154 @@
+package com.selendroid.qa.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a component registry for every concrete subclass of
+ * {@link com.selendroid.qa.components.BaseElements}. The registry is an enum named after the
+ * elements class with the Components suffix, holding one constant per private WebElement field
+ * in declaration order, e.g. the field enBtn becomes EN_BTN.
+ *
+ * The processor runs alongside Lombok when the test sources are compiled
+ *
+ * @author sanjay
+ *
+ */
+public class ComponentRegistryProcessor extends AbstractProcessor {
+
+    public static final String REGISTRY_SUFFIX = "Components";
+
+    private static final String BASE_ELEMENTS = "com.selendroid.qa.components.BaseElements";
+    private static final String COMPONENT_KEY = "com.selendroid.qa.components.ComponentKey";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement baseElements = processingEnv.getElementUtils().getTypeElement(BASE_ELEMENTS);
+        TypeElement webElement = processingEnv.getElementUtils().getTypeElement(WEB_ELEMENT);
+
+        if(baseElements == null || webElement == null) {
+            return false;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror baseType = types.erasure(baseElements.asType());
+
+        for(TypeElement type: ElementFilter.typesIn(roundEnv.getRootElements())) {
+            if(type.getKind() == ElementKind.CLASS
+                    && !type.getModifiers().contains(Modifier.ABSTRACT)
+                    && !type.equals(baseElements)
+                    && types.isSubtype(types.erasure(type.asType()), baseType)) {
+
+                generate(type, fieldsOf(type, webElement.asType()));
+            }
+        }
+
+        // never claim the annotations so Lombok still processes them
+        return false;
+    }
+
+    private List<String> fieldsOf(TypeElement type, TypeMirror webElement) {
+        Types types = processingEnv.getTypeUtils();
+        List<String> fields = new ArrayList<>();
+
+        for(VariableElement field: ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if(field.getModifiers().contains(Modifier.PRIVATE)
+                    && !field.getModifiers().contains(Modifier.STATIC)
+                    && types.isAssignable(field.asType(), webElement)) {
+                fields.add(field.getSimpleName().toString());
+            }
+        }
+        return fields;
+    }
+
+    private void generate(TypeElement type, List<String> fields) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? null : pkg.getQualifiedName().toString();
+        String registryName = type.getSimpleName() + REGISTRY_SUFFIX;
+        String qualifiedName = packageName == null ? registryName : packageName + '.' + registryName;
+
+        try (PrintWriter out = new PrintWriter(
+                processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())) {
+
+            if(packageName != null) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Component registry for {@link " + type.getSimpleName() + "}, generated at build time by");
+            out.println(" * " + getClass().getName() + ". Do not edit");
+            out.println(" */");
+            out.println("public enum " + registryName + " implements " + COMPONENT_KEY + " {");
+            out.println();
+
+            for(int i = 0; i < fields.size(); i++) {
+                String field = fields.get(i);
+                out.println("    " + constantName(field) + "(\"" + field + "\")" + (i < fields.size() - 1 ? "," : ";"));
+            }
+            if(fields.isEmpty()) {
+                out.println("    ;");
+            }
+
+            out.println();
+            out.println("    private final String fieldName;");
+            out.println();
+            out.println("    " + registryName + "(String fieldName) {");
+            out.println("        this.fieldName = fieldName;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public String getFieldName() {");
+            out.println("        return fieldName;");
+            out.println("    }");
+            out.println("}");
+
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate component registry " + qualifiedName + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Convert a camel case field name to a constant name e.g. enBtn to EN_BTN
+     * @param field - the field name
+     * @return the constant name
+     */
+    private static String constantName(String field) {
+        StringBuilder name = new StringBuilder();
+        for(int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if(Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(field.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(Character.toUpperCase(c));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,251 @@
+package com.selendroid.qa.reporting;
+
+import com.google.gson.Gson;
+import com.selendroid.qa.utils.ArtifactRoot;
+import com.selendroid.qa.utils.TestUtil;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.selendroid.qa.utils.PropertyUtil.getBoolean;
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
+import static com.selendroid.qa.utils.PropertyUtil.getLong;
+
+/**
+ * Streams report events as JSON lines (one {@link ReportEvent} per line) so results can be consumed
+ * while the suite is still running. Lines go through a fixed size buffer into a file channel, the
+ * buffer is written out when it's full and after every test level event. Files are rotated by size,
+ * events-0001.jsonl, events-0002.jsonl and so on under the events directory of the {@link ArtifactRoot}.
+ *
+ * Nothing is kept in memory besides the buffer, enable it with report.events.enabled=true
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class EventLog implements Closeable {
+
+    private static final Gson GSON = new Gson();
+
+    private static final byte NEW_LINE = '\n';
+
+    private static final boolean ENABLED = getBoolean("report.events.enabled", false);
+
+    /**
+     * The last action performed on each thread, the report logs that follow it are attributed to it
+     */
+    private static final ThreadLocal<String> LAST_ACTION = new ThreadLocal<>();
+
+    private static volatile EventLog instance;
+
+    private static boolean closed;
+
+    private final Path directory;
+
+    private final long rotateBytes;
+
+    private final ByteBuffer buffer;
+
+    private FileChannel channel;
+
+    private long written;
+
+    private int part;
+
+    /**
+     * Create an event log
+     * @param directory - where the event files are written
+     * @param bufferBytes - the size of the write buffer
+     * @param rotateBytes - the maximum size of an event file
+     */
+    public EventLog(Path directory, int bufferBytes, long rotateBytes) {
+        this.directory = directory;
+        this.rotateBytes = rotateBytes;
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    /**
+     * Check if the event log is enabled in application.properties
+     * @return true if events are recorded
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record an event for the current test, does nothing if the event log is disabled
+     * @param component - the component name
+     * @param action - the action e.g. click
+     * @param latencyNanos - the duration of the action, or null
+     * @param status - the outcome, or null
+     */
+    public static void record(String component, String action, Long latencyNanos, String status) {
+        EventLog events = getInstance();
+        if(events == null) {
+            return;
+        }
+
+        events.append(ReportEvent.builder()
+                .timestamp(System.currentTimeMillis())
+                .thread(Thread.currentThread().getName())
+                .test(TestUtil.getCurrentTestName())
+                .component(component)
+                .action(action)
+                .latencyMillis(latencyNanos == null ? null : latencyNanos / 1_000_000d)
+                .status(status)
+                .build(), false);
+    }
+
+    /**
+     * Record an event, does nothing if the event log is disabled
+     * @param event - the event
+     * @param flush - true to write the buffer out after the event e.g. at the end of a test
+     */
+    public static void record(ReportEvent event, boolean flush) {
+        EventLog events = getInstance();
+        if(events != null) {
+            events.append(event, flush);
+        }
+    }
+
+    /**
+     * Remember the action the current thread is performing, does nothing if the event log is disabled
+     * @param action - the action e.g. click
+     */
+    public static void markAction(String action) {
+        if(ENABLED) {
+            LAST_ACTION.set(action);
+        }
+    }
+
+    /**
+     * Take the action last marked on the current thread, each action is taken only once
+     * @return the action, or null if none was marked since it was last taken
+     */
+    public static String takeAction() {
+        String action = LAST_ACTION.get();
+        LAST_ACTION.remove();
+        return action;
+    }
+
+    /**
+     * Close the shared event log if it was used
+     */
+    public static synchronized void closeInstance() {
+        closed = true;
+        if(instance != null) {
+            try {
+                instance.close();
+            } catch (IOException e) {
+                log.error("Failed to close the event log", e);
+            }
+        }
+    }
+
+    private static EventLog getInstance() {
+        EventLog events = instance;
+        if(events == null && isEnabled()) {
+            synchronized(EventLog.class) {
+                if(instance == null && !closed) {
+                    instance = new EventLog(ArtifactRoot.getInstance().getDirectory("events"),
+                            getInt("report.events.buffer.bytes", 64 * 1024),
+                            getLong("report.events.rotate.bytes", 64L * 1024 * 1024));
+                }
+                events = instance;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Append an event
+     * @param event - the event
+     * @param flush - true to write the buffer out after the event
+     */
+    public synchronized void append(ReportEvent event, boolean flush) {
+        byte[] line = GSON.toJson(event).getBytes(StandardCharsets.UTF_8);
+
+        try {
+            if(line.length + 1 > buffer.remaining()) {
+                drain();
+            }
+
+            if(line.length + 1 > buffer.capacity()) {
+                // bigger than the whole buffer, write it straight through
+                ByteBuffer whole = ByteBuffer.allocate(line.length + 1);
+                whole.put(line).put(NEW_LINE).flip();
+                write(whole);
+            } else {
+                buffer.put(line).put(NEW_LINE);
+            }
+
+            if(flush) {
+                drain();
+            }
+
+        } catch (IOException e) {
+            log.error("Failed to write report event", e);
+        }
+    }
+
+    /**
+     * Write out the buffered events
+     * @throws IOException - if the events could not be written
+     */
+    public synchronized void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Write out the buffered events and close the current file
+     * @throws IOException - if the events could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        drain();
+        if(channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            if(buffer.hasRemaining()) {
+                write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        if(channel == null || written + bytes.remaining() > rotateBytes && written > 0) {
+            rotate();
+        }
+
+        while(bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+    }
+
+    private void rotate() throws IOException {
+        if(channel != null) {
+            channel.close();
+        }
+
+        part++;
+        Path file = directory.resolve(String.format("events-%04d.jsonl", part));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        written = 0;
+        log.info("Writing report events to {}", file);
+    }
+}
@@ -17,7 +17,7 @@ public class ExtentManager {
     private static String reportFileLocation =  reportFilepath +fileSeperator+ reportFileName;
 
 
-    public static ExtentReports getInstance() {
+    public static synchronized ExtentReports getInstance() {
         if (extent == null)
             createInstance();
         return extent;
@@ -38,6 +38,9 @@ public class ExtentManager {
 
         extent = new ExtentReports();
         extent.attachReporter(htmlReporter);
+        if (EventLog.isEnabled()) {
+            extent.attachReporter(new JsonLinesReporter());
+        }
         //Set environment details
         extent.setSystemInfo("OS", "MAC");
         extent.setSystemInfo("AUT", "QA");
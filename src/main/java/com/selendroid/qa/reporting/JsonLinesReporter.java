@@ -0,0 +1,99 @@
+package com.selendroid.qa.reporting;
+
+import com.aventstack.extentreports.model.Author;
+import com.aventstack.extentreports.model.Category;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.ScreenCapture;
+import com.aventstack.extentreports.model.Screencast;
+import com.aventstack.extentreports.model.Test;
+import com.aventstack.extentreports.reporter.AbstractReporter;
+
+import java.util.List;
+
+/**
+ * An extent reporter that streams every test and log of the report to the {@link EventLog}
+ * as it happens, attached next to the HTML reporter. A log is attributed to the last component
+ * action of its thread and carries its message as details. It keeps no reference to the tests so
+ * its memory doesn't grow with the suite
+ *
+ * @author sanjay
+ *
+ */
+public class JsonLinesReporter extends AbstractReporter {
+
+    private static final String STARTED = "started";
+
+    @Override
+    public void start() {
+        // the event log is opened on the first event
+    }
+
+    @Override
+    public void stop() {
+        EventLog.closeInstance();
+    }
+
+    @Override
+    public void flush() {
+        // events are streamed as they happen, nothing is rendered
+    }
+
+    @Override
+    public void setTestList(List<Test> testList) {
+        // not needed, see flush
+    }
+
+    @Override
+    public void onTestStarted(Test test) {
+        // actions of the previous test are not carried over
+        EventLog.takeAction();
+        record(test, STARTED, null, null, true);
+    }
+
+    @Override
+    public void onNodeStarted(Test node) {
+        record(node, STARTED, null, null, true);
+    }
+
+    @Override
+    public void onLogAdded(Test test, Log log) {
+        String details = log.getDetails() != null ? log.getDetails() : log.getStepName();
+        record(test, EventLog.takeAction(), details, String.valueOf(log.getStatus()), false);
+    }
+
+    @Override
+    public void onCategoryAssigned(Test test, Category category) {
+        // not streamed
+    }
+
+    @Override
+    public void onAuthorAssigned(Test test, Author author) {
+        // not streamed
+    }
+
+    @Override
+    public void onScreenCaptureAdded(Test test, ScreenCapture screenCapture) {
+        // screenshots are indexed by the screenshot store
+    }
+
+    @Override
+    public void onScreenCaptureAdded(Log log, ScreenCapture screenCapture) {
+        // screenshots are indexed by the screenshot store
+    }
+
+    @Override
+    public void onScreencastAdded(Test test, Screencast screencast) {
+        // not streamed
+    }
+
+    private static void record(Test test, String action, String details, String status, boolean flush) {
+        EventLog.record(ReportEvent.builder()
+                .timestamp(System.currentTimeMillis())
+                .thread(Thread.currentThread().getName())
+                .test(test.getName())
+                .action(action)
+                .details(details)
+                .status(status)
+                .build(), flush);
+    }
+}
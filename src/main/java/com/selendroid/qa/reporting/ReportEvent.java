@@ -0,0 +1,43 @@
+package com.selendroid.qa.reporting;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A single line of the {@link EventLog}, fields that don't apply are left null and are not written
+ *
+ * @author sanjay
+ *
+ */
+@Value
+@Builder
+public class ReportEvent {
+
+    /**
+     * Epoch millis of the event
+     */
+    private final long timestamp;
+
+    private final String thread;
+
+    /**
+     * The test method or report test the event belongs to
+     */
+    private final String test;
+
+    private final String component;
+
+    /**
+     * The action name e.g. click, started or finished
+     */
+    private final String action;
+
+    /**
+     * The free form message of a report log
+     */
+    private final String details;
+
+    private final Double latencyMillis;
+
+    private final String status;
+}
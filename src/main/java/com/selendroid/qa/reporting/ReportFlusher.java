@@ -0,0 +1,103 @@
+package com.selendroid.qa.reporting;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.selendroid.qa.utils.PropertyUtil.getLong;
+
+/**
+ * Renders the extent report in the background instead of on every test end. Rendering re-writes
+ * the whole HTML report, so it's only done every report.flush.interval.seconds when something
+ * changed, and once more when the suite ends. An interval of 0 renders the report only at the end
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ReportFlusher {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final AtomicBoolean DIRTY = new AtomicBoolean();
+
+    private static final AtomicBoolean CLOSED = new AtomicBoolean();
+
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Start the background flusher, does nothing if it's already started or disabled
+     */
+    public static synchronized void start() {
+        long interval = getLong("report.flush.interval.seconds", 0);
+        if(scheduler != null || interval <= 0 || CLOSED.get()) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(ReportFlusher::flushIfDirty, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Record that the report changed since it was last rendered
+     */
+    public static void markDirty() {
+        DIRTY.set(true);
+    }
+
+    /**
+     * Stop the background flusher, waiting for a render in progress, and render the report one
+     * last time. Only the first call renders
+     */
+    public static void close() {
+        if(!CLOSED.compareAndSet(false, true)) {
+            return;
+        }
+
+        ScheduledExecutorService stopped;
+        synchronized(ReportFlusher.class) {
+            stopped = scheduler;
+            scheduler = null;
+        }
+
+        if(stopped != null) {
+            stopped.shutdown();
+            try {
+                if(!stopped.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("The report was still rendering after {} s, rendering it again", SHUTDOWN_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long start = System.nanoTime();
+        ExtentManager.getInstance().flush();
+        DIRTY.set(false);
+        log.info("Rendered the test report in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void flushIfDirty() {
+        if(!DIRTY.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            ExtentManager.getInstance().flush();
+        } catch (RuntimeException e) {
+            // the report is being written by the test threads, try again on the next run
+            log.warn("Failed to render the test report, retrying later", e);
+            DIRTY.set(true);
+        }
+    }
+}
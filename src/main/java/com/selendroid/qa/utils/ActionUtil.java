@@ -1,45 +1,56 @@
 package com.selendroid.qa.utils;
 
 import com.selendroid.qa.enums.DirectionType;
+import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.metrics.Instrumentation;
 import io.appium.java_client.AppiumDriver;
-import io.appium.java_client.TouchAction;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Point;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.RemoteWebElement;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-
-import static io.appium.java_client.touch.TapOptions.tapOptions;
-import static io.appium.java_client.touch.WaitOptions.waitOptions;
-import static io.appium.java_client.touch.offset.ElementOption.element;
-import static io.appium.java_client.touch.offset.PointOption.point;
+import java.util.Optional;
 
 /**
  * A utility class for mobile actions that can be performed using the Appium Driver.
- * Actions include tapping, scrolling, clicking and other mobile gestures
+ * Actions include tapping, scrolling, clicking and other mobile gestures, touch gestures are
+ * sent as a single W3C actions command each, see {@link Gesture}
  * @author sanjay
  *
  */
+@Log4j2
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 @SuppressWarnings("rawtypes")
 public class ActionUtil {
 
     public static final long DEFAULT_SCROLL_WAIT_MILLIS = 400;
 
+    private static final String GESTURE = "gesture";
+    private static final String TAP = "tap";
+    private static final String LONG_TAP = "longTap";
+    private static final String SCROLL = "scroll";
+    private static final String SCROLL_TO_ELEMENT = "scrollToElement";
+    private static final String CLICK_POINT = "clickOnPoint";
+    private static final String SWIPE = "swipe";
+    private static final String DRAG_AND_DROP = "dragAndDrop";
+    private static final String BACK = "back";
+
     /**
      * Tap to an element.
      * @param element - element on which to perform the action
      * @param driver - the current driver
      */
     public static void tapOnElement(WebElement element, AppiumDriver driver) {
-        new TouchAction(driver)
-            .tap(tapOptions().withElement(element(element)))
-            .perform();
+        Gesture.on(driver).tap(element).perform(TAP);
     }
 
     /**
@@ -49,9 +60,8 @@ public class ActionUtil {
      * @param millis - delay in milliseconds
      */
     public static void tapOnElementForParticularDuration(WebElement element, AppiumDriver driver, long millis) {
-        new TouchAction(driver)
-        .tap(tapOptions().withElement(element(element)))
-        .waitAction(waitOptions(Duration.ofMillis(millis))).perform();
+        Point center = Gesture.center(element);
+        Gesture.on(driver).press(center.getX(), center.getY(), Duration.ofMillis(millis)).perform(LONG_TAP);
     }
 
     /**
@@ -61,9 +71,7 @@ public class ActionUtil {
      * @param y - y coordinates
      */
     public static void tapOnCoordinates(AppiumDriver driver, int x, int y) {
-        new TouchAction(driver)
-            .tap(point(x, y))
-            .perform();
+        Gesture.on(driver).tap(x, y).perform(TAP);
     }
 
     /**
@@ -74,38 +82,53 @@ public class ActionUtil {
      * @param millis - delay in milliseconds
      */
     public static void tapOnCoordinatesForParticularDuration(AppiumDriver driver, int x, int y, long millis) {
-        new TouchAction(driver)
-        .tap(point(x, y))
-        .waitAction(waitOptions(Duration.ofMillis(millis))).perform();
+        Gesture.on(driver).press(x, y, Duration.ofMillis(millis)).perform(LONG_TAP);
     }
 
     /**
-     * Scroll from one element to another
+     * Scroll from the center of one element to the center of another
      * @param fromElement - the source element for the scroll
      * @param toElement - the target element for the scroll
      * @param driver - the current driver
      */
     public static void scrollToElement(WebElement fromElement, WebElement toElement, AppiumDriver driver) {
-        scroll(
-                fromElement.getLocation().getX(),
-                fromElement.getLocation().getY(),
-                toElement.getLocation().getX(),
-                toElement.getLocation().getY(), driver);
+        Point from = Gesture.center(fromElement);
+        Point to = Gesture.center(toElement);
+        scroll(from.getX(), from.getY(), to.getX(), to.getY(), driver);
     }
 
     /**
      * Scroll down to a particular element
      * @param toElement - the target element for the scroll
      * @param driver - the current driver
+     * @throws FrameworkException if the element is not displayed once the end of the list is reached
      */
     public static void scrollDownToElement(WebElement toElement, AppiumDriver driver) {
-        Dimension windowSize = driver.manage().window().getSize();
-        int startY = (int) (windowSize.height * 0.80);
-        int endY = (int) (windowSize.height * 0.20);
-        int startX = windowSize.width / 2;
-        do {
-            scroll(startX, startY, startX, endY, driver);
-        } while (!TestUtil.isElementDisplayed(toElement));
+        scrollToElement(toElement, DirectionType.DOWN, driver);
+    }
+
+    /**
+     * Scroll until the element located by the By is on the screen, in a single command when the
+     * platform can scroll to the locator natively, see {@link ScrollEngine}
+     * @param target - the By of the target element
+     * @param direction - the direction to scroll the content in
+     * @param driver - the current driver
+     * @return the element or empty if the end of the list was reached without finding it
+     */
+    public static Optional<WebElement> scrollToElement(By target, DirectionType direction, AppiumDriver driver) {
+        long start = System.nanoTime();
+        Optional<WebElement> element = ScrollEngine.scrollTo(target, direction, driver);
+        Instrumentation.record(GESTURE, SCROLL_TO_ELEMENT, start, start, System.nanoTime());
+        return element;
+    }
+
+    private static void scrollToElement(WebElement toElement, DirectionType direction, AppiumDriver driver) {
+        long start = System.nanoTime();
+        boolean displayed = ScrollEngine.scrollUntilDisplayed(toElement, direction, driver);
+        Instrumentation.record(GESTURE, SCROLL_TO_ELEMENT, start, start, System.nanoTime());
+        if(!displayed) {
+            throw new FrameworkException("Element is not displayed after scrolling " + direction);
+        }
     }
 
     /**
@@ -113,7 +136,7 @@ public class ActionUtil {
      * @param driver - the current driver
      */
     public static void scrollDownByPixel(AppiumDriver driver, int pixelValue) {
-        Dimension windowSize = driver.manage().window().getSize();
+        Dimension windowSize = ScrollEngine.getWindowSize(driver);
         int startY = (int) (windowSize.height * 0.80);
         int endY = startY - pixelValue;
         int startX = (int) (windowSize.width * 0.80);
@@ -124,15 +147,10 @@ public class ActionUtil {
      * Scroll right to a particular element
      * @param toElement - the target element for the scroll
      * @param driver - the current driver
+     * @throws FrameworkException if the element is not displayed once the end of the list is reached
      */
     public static void scrollRightToElement(WebElement toElement, AppiumDriver driver) {
-        Dimension windowSize = driver.manage().window().getSize();
-        int startY = (int) (windowSize.width * 0.80);
-        int endY = (int) (windowSize.width * 0.20);
-        int startX = windowSize.height / 2;
-        do {
-            scroll(startX, startY, startX, endY, driver);
-        } while (!TestUtil.isElementDisplayed(toElement));
+        scrollToElement(toElement, DirectionType.RIGHT, driver);
     }
 
     /**
@@ -142,10 +160,9 @@ public class ActionUtil {
      * @param toX - to x coordinates
      * @param toY - to y coordinates
      * @param driver - the current driver
-     * @return TouchAction for the scroll
      */
-    public static TouchAction scroll(int fromX, int fromY, int toX, int toY, AppiumDriver driver) {
-        return scroll(fromX, fromY, toX, toY, DEFAULT_SCROLL_WAIT_MILLIS, driver);
+    public static void scroll(int fromX, int fromY, int toX, int toY, AppiumDriver driver) {
+        scroll(fromX, fromY, toX, toY, DEFAULT_SCROLL_WAIT_MILLIS, driver);
     }
 
     /**
@@ -154,18 +171,12 @@ public class ActionUtil {
      * @param fromY - from y coordinates
      * @param toX - to x coordinates
      * @param toY - to y coordinates
-     * @param millis - delay in milliseconds
+     * @param millis - how long the finger takes to move, in milliseconds
      * @param driver - the current driver
-     * @return TouchAction for the scroll
      */
-    public static TouchAction scroll(int fromX, int fromY, int toX, int toY,
+    public static void scroll(int fromX, int fromY, int toX, int toY,
             long millis, AppiumDriver driver) {
-        return new TouchAction(driver)
-                .press(point(fromX, fromY))
-                .waitAction(waitOptions(Duration.ofMillis(millis)))
-                .moveTo(point(toX, toY))
-                .release()
-                .perform();
+        Gesture.on(driver).swipe(fromX, fromY, toX, toY, Duration.ofMillis(millis)).perform(SCROLL);
     }
 
     /**
@@ -173,15 +184,10 @@ public class ActionUtil {
      *
      * @param element - element on which to perform the action
      * @param driver - the current driver
+     * @throws FrameworkException if the element is not displayed once the end of the list is reached
      */
     public static void scrollUpToElement(WebElement element, AppiumDriver driver) {
-        Dimension size = driver.manage().window().getSize();
-        int startY = (int) (size.getHeight() * 0.80);
-        int endY = (int) (size.getHeight() * 0.20);
-        int startEndX = (int) (size.getWidth() * 0.50);
-        while (!TestUtil.isElementDisplayed(element)) {
-            scroll(startEndX, endY, startEndX, startY, driver);
-        }
+        scrollToElement(element, DirectionType.UP, driver);
     }
 
     /**
@@ -191,7 +197,7 @@ public class ActionUtil {
      * @param driver - the current driver
      */
     public static void clickOnPoint(int x, int y, AppiumDriver driver) {
-        new TouchAction(driver).press(point(x, y)).release().perform();
+        Gesture.on(driver).tap(x, y).perform(CLICK_POINT);
     }
 
     /**
@@ -202,11 +208,14 @@ public class ActionUtil {
      * @param element - the component element which the action will be performed on
      */
     public static void swipeElement(AppiumDriver driver, DirectionType direction, WebElement element) {
+        long start = System.nanoTime();
         JavascriptExecutor js = driver;
         Map<String, Object> params = new HashMap<>();
         params.put("direction", direction.getDirection());
         params.put("element", ((RemoteWebElement) element).getId());
         js.executeScript("mobile: swipe", params);
+        ScreenState.of(driver).invalidate();
+        Instrumentation.record(GESTURE, SWIPE, start, start, System.nanoTime());
     }
 
     /**
@@ -216,12 +225,9 @@ public class ActionUtil {
      * @param driver - the current driver
      */
     public static void dragAndDrop(WebElement fromElement, WebElement toElement, AppiumDriver driver) {
-        dragAndDrop(
-            fromElement.getLocation().getX(),
-            fromElement.getLocation().getY(),
-            toElement.getLocation().getX(),
-            toElement.getLocation().getY(),
-            driver);
+        Point from = Gesture.center(fromElement);
+        Point to = Gesture.center(toElement);
+        dragAndDrop(from.getX(), from.getY(), to.getX(), to.getY(), driver);
     }
 
     /**
@@ -233,12 +239,8 @@ public class ActionUtil {
      * @param driver - the current driver
      */
     public static void dragAndDrop(int fromX, int fromY, int toX, int toY, AppiumDriver driver) {
-        new TouchAction(driver)
-            .longPress(point(fromX, fromY))
-            .waitAction(waitOptions(Duration.ofMillis(DEFAULT_SCROLL_WAIT_MILLIS)))
-            .moveTo(point(toX, toY))
-            .perform()
-            .release();
+        Duration wait = Duration.ofMillis(DEFAULT_SCROLL_WAIT_MILLIS);
+        Gesture.on(driver).drag(fromX, fromY, toX, toY, wait, wait).perform(DRAG_AND_DROP);
     }
 
     /**
@@ -246,6 +248,9 @@ public class ActionUtil {
      * @param driver - the current driver
     */
     public static void clickBackButton(AppiumDriver driver) {
+        long start = System.nanoTime();
         driver.navigate().back();
+        ScreenState.of(driver).invalidate();
+        Instrumentation.record(GESTURE, BACK, start, start, System.nanoTime());
     }
 }
@@ -0,0 +1,189 @@
+package com.selendroid.qa.utils;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.selendroid.qa.utils.PropertyUtil.getOrDefault;
+
+/**
+ * The root directory of the test artifacts (screenshots, logs, reports...). Every run gets its own
+ * directory under the root, named after the start time and a random suffix so concurrent runs never
+ * share one. Directories are created on first use only. The root is set with artifacts.root in application.properties or the system
+ * property of the same name.
+ *
+ * With artifacts.archive=zip the artifacts written through {@link #write(String, byte[])} go into
+ * a single zip per run instead of loose files
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class ArtifactRoot implements Closeable {
+
+    private static final String ROOT_PROPERTY = "artifacts.root";
+
+    private static final String ARCHIVE_ZIP = "zip";
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static ArtifactRoot instance;
+
+    @Getter
+    private final Path root;
+
+    @Getter
+    private final String runId;
+
+    private final boolean zip;
+
+    private final Map<Path, Path> created = new ConcurrentHashMap<>();
+
+    private ZipOutputStream archive;
+
+    private boolean closed;
+
+    /**
+     * Create an artifact root
+     * @param root - the root directory
+     * @param runId - the name of the run directory
+     * @param zip - true to write artifacts into a zip per run instead of loose files
+     */
+    public ArtifactRoot(Path root, String runId, boolean zip) {
+        this.root = root.toAbsolutePath();
+        this.runId = runId;
+        this.zip = zip;
+    }
+
+    /**
+     * Get the shared artifact root, the system property wins over application.properties
+     * @return the shared artifact root
+     */
+    public static synchronized ArtifactRoot getInstance() {
+        if(instance == null) {
+            String root = System.getProperty(ROOT_PROPERTY, getOrDefault(ROOT_PROPERTY, "target/artifacts"));
+            boolean zip = ARCHIVE_ZIP.equalsIgnoreCase(getOrDefault("artifacts.archive", "none"));
+            instance = new ArtifactRoot(Paths.get(root), newRunId(), zip);
+            log.info("Writing artifacts to {}", instance.getRunDirectory());
+        }
+        return instance;
+    }
+
+    /**
+     * Close the shared artifact root if it was used
+     */
+    public static synchronized void closeInstance() {
+        if(instance != null) {
+            try {
+                instance.close();
+            } catch (IOException e) {
+                log.error("Failed to close the artifact root", e);
+            }
+        }
+    }
+
+    /**
+     * Get the directory of this run
+     * @return the run directory, created if needed
+     */
+    public Path getRunDirectory() {
+        return createOnce(root.resolve(runId));
+    }
+
+    /**
+     * Get a named directory of this run e.g. screenshots
+     * @param name - the directory name
+     * @return the directory, created if needed
+     */
+    public Path getDirectory(String name) {
+        return createOnce(root.resolve(runId).resolve(name));
+    }
+
+    /**
+     * Write an artifact, either as a file under the run directory or as an entry of the run zip
+     * @param name - the name relative to the run directory e.g. screenshots/login.png
+     * @param bytes - the content
+     * @throws IOException - if the artifact could not be written
+     */
+    public void write(String name, byte[] bytes) throws IOException {
+        if(zip) {
+            writeEntry(name, bytes);
+            return;
+        }
+
+        Path path = getRunDirectory().resolve(name);
+        if(path.getParent() != null) {
+            createOnce(path.getParent());
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Finish the run zip, loose files need no closing
+     * @throws IOException - if the zip could not be finished
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if(archive != null) {
+            archive.close();
+            archive = null;
+        }
+    }
+
+    private static String newRunId() {
+        return LocalDateTime.now().format(RUN_ID) + '-' + String.format("%04x", ThreadLocalRandom.current().nextInt(0x10000));
+    }
+
+    private synchronized void writeEntry(String name, byte[] bytes) throws IOException {
+        if(closed) {
+            throw new IOException("Artifact archive is closed, cannot write " + name);
+        }
+
+        if(archive == null) {
+            Path file = createOnce(root).resolve(runId + '.' + ARCHIVE_ZIP);
+            archive = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            // screenshots are compressed already
+            archive.setLevel(Deflater.BEST_SPEED);
+        }
+
+        archive.putNextEntry(new ZipEntry(name));
+        archive.write(bytes);
+        archive.closeEntry();
+    }
+
+    private Path createOnce(Path directory) {
+        return created.computeIfAbsent(directory, d -> {
+            try {
+                return Files.createDirectories(d);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
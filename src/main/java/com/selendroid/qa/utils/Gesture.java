@@ -0,0 +1,173 @@
+package com.selendroid.qa.utils;
+
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.metrics.Instrumentation;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.openqa.selenium.interactions.PointerInput.MouseButton.LEFT;
+import static org.openqa.selenium.interactions.PointerInput.Origin.viewport;
+
+/**
+ * Composes touch gestures into a single W3C actions sequence of one finger. Several gestures
+ * can be chained, e.g. swipe, swipe and tap, and they are all sent to the server in one
+ * command when the gesture is performed. Element coordinates are resolved with a single
+ * getRect() per element
+ *
+ * @author sanjay
+ *
+ */
+@SuppressWarnings("rawtypes")
+public class Gesture {
+
+    private static final String COMPONENT = "gesture";
+
+    private static final String FINGER = "finger";
+
+    private final AppiumDriver driver;
+
+    private final PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, FINGER);
+
+    private final Sequence sequence = new Sequence(finger, 0);
+
+    private boolean empty = true;
+
+    private Gesture(AppiumDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Start composing a gesture
+     * @param driver - the current driver
+     * @return an empty gesture
+     */
+    public static Gesture on(AppiumDriver driver) {
+        return new Gesture(driver);
+    }
+
+    /**
+     * Get the center of an element, the rect is fetched in one round trip
+     * @param element - the element
+     * @return the center point of the element
+     */
+    public static Point center(WebElement element) {
+        return center(element.getRect());
+    }
+
+    /**
+     * Get the center of a rect
+     * @param rect - the rect of an element
+     * @return the center point of the rect
+     */
+    public static Point center(Rectangle rect) {
+        return new Point(rect.getX() + rect.getWidth() / 2, rect.getY() + rect.getHeight() / 2);
+    }
+
+    /**
+     * Tap on coordinates
+     * @param x - x coordinates
+     * @param y - y coordinates
+     * @return this gesture
+     */
+    public Gesture tap(int x, int y) {
+        return press(x, y, Duration.ZERO);
+    }
+
+    /**
+     * Tap on the center of an element
+     * @param element - the element
+     * @return this gesture
+     */
+    public Gesture tap(WebElement element) {
+        Point center = center(element);
+        return tap(center.getX(), center.getY());
+    }
+
+    /**
+     * Touch coordinates and hold before releasing, a long tap
+     * @param x - x coordinates
+     * @param y - y coordinates
+     * @param hold - how long to hold the finger down
+     * @return this gesture
+     */
+    public Gesture press(int x, int y, Duration hold) {
+        moveTo(x, y, Duration.ZERO);
+        sequence.addAction(finger.createPointerDown(LEFT.asArg()));
+        pause(hold);
+        sequence.addAction(finger.createPointerUp(LEFT.asArg()));
+        return this;
+    }
+
+    /**
+     * Swipe from one coordinates point to another
+     * @param fromX - from x coordinates
+     * @param fromY - from y coordinates
+     * @param toX - to x coordinates
+     * @param toY - to y coordinates
+     * @param duration - how long the finger takes to move
+     * @return this gesture
+     */
+    public Gesture swipe(int fromX, int fromY, int toX, int toY, Duration duration) {
+        return drag(fromX, fromY, toX, toY, Duration.ZERO, duration);
+    }
+
+    /**
+     * Touch, hold and move to another coordinates point before releasing
+     * @param fromX - from x coordinates
+     * @param fromY - from y coordinates
+     * @param toX - to x coordinates
+     * @param toY - to y coordinates
+     * @param hold - how long to hold the finger down before moving
+     * @param duration - how long the finger takes to move
+     * @return this gesture
+     */
+    public Gesture drag(int fromX, int fromY, int toX, int toY, Duration hold, Duration duration) {
+        moveTo(fromX, fromY, Duration.ZERO);
+        sequence.addAction(finger.createPointerDown(LEFT.asArg()));
+        pause(hold);
+        moveTo(toX, toY, duration);
+        sequence.addAction(finger.createPointerUp(LEFT.asArg()));
+        return this;
+    }
+
+    /**
+     * Wait between two gestures
+     * @param duration - how long to wait
+     * @return this gesture
+     */
+    public Gesture pause(Duration duration) {
+        if(!duration.isZero()) {
+            sequence.addAction(new Pause(finger, duration));
+            empty = false;
+        }
+        return this;
+    }
+
+    /**
+     * Send the whole gesture to the server in one command, mark the screen as changed and
+     * record the latency of the gesture
+     * @param name - the gesture name used in the metrics
+     */
+    public void perform(String name) {
+        if(empty) {
+            return;
+        }
+        long start = System.nanoTime();
+        driver.perform(Collections.singletonList(sequence));
+        ScreenState.of(driver).invalidate();
+        Instrumentation.record(COMPONENT, name, start, start, System.nanoTime());
+    }
+
+    private void moveTo(int x, int y, Duration duration) {
+        sequence.addAction(finger.createPointerMove(duration, viewport(), x, y));
+        empty = false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.selendroid.qa.utils;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static com.selendroid.qa.utils.PropertyUtil.getLong;
+
+/**
+ * A wait that polls its condition quickly at first and then backs off exponentially with jitter.
+ * Most conditions are met within the first few hundred milliseconds, so a fast initial phase
+ * avoids fixed sleeps, whilst the backoff keeps slow conditions from flooding the Appium server.
+ *
+ * Like WebDriverWait, a condition is met when it returns something other than null or false, and
+ * NotFoundException/StaleElementReferenceException are ignored whilst polling
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@Getter
+@Builder
+public class PollingWait {
+
+    private final Duration timeout;
+
+    private final Duration fastPollInterval;
+
+    private final Duration fastPollDuration;
+
+    private final Duration maxPollInterval;
+
+    private final double backoffMultiplier;
+
+    private final double jitter;
+
+    /**
+     * Create a wait for the provided timeout, the polling intervals are read from application.properties
+     * @param timeout - the maximum time to wait for the condition
+     * @return the configured wait
+     */
+    public static PollingWait withTimeout(Duration timeout) {
+        return PollingWait.builder()
+                .timeout(timeout)
+                .fastPollInterval(Duration.ofMillis(getLong("wait.fast.poll.millis", 50)))
+                .fastPollDuration(Duration.ofMillis(getLong("wait.fast.poll.duration.millis", 500)))
+                .maxPollInterval(Duration.ofMillis(getLong("wait.max.poll.millis", 1000)))
+                .backoffMultiplier(Double.parseDouble(PropertyUtil.getOrDefault("wait.backoff.multiplier", "1.5")))
+                .jitter(Double.parseDouble(PropertyUtil.getOrDefault("wait.jitter", "0.2")))
+                .build();
+    }
+
+    /**
+     * Poll the condition until it is met or the timeout expires
+     * @param driver - the current driver, passed to the condition
+     * @param condition - the condition to wait for e.g. an ExpectedCondition
+     * @param <V> - the value returned by the condition
+     * @return the value returned by the condition once it is met
+     * @throws TimeoutException if the condition is not met within the timeout
+     */
+    public <V> V until(WebDriver driver, Function<? super WebDriver, V> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long interval = fastPollInterval.toMillis();
+        RuntimeException lastException = null;
+        int attempts = 0;
+
+        while(true) {
+            attempts++;
+            try {
+                V value = condition.apply(driver);
+                if(value != null && !Boolean.FALSE.equals(value)) {
+                    log.debug("Condition {} met after {} attempts", condition, attempts);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+
+            long now = System.nanoTime();
+            if(now >= deadline) {
+                throw new TimeoutException(String.format("Expected condition failed: %s (tried %d times over %d ms)",
+                        condition, attempts, Duration.ofNanos(now - start).toMillis()), lastException);
+            }
+
+            if(now - start >= fastPollDuration.toNanos()) {
+                interval = nextInterval(interval);
+            }
+
+            long sleep = withJitter(interval);
+            WaitUtil.pause(Math.max(1, Math.min(sleep, Duration.ofNanos(deadline - now).toMillis())));
+        }
+    }
+
+    /**
+     * Back off the poll interval, a short interval grows by at least a millisecond so the
+     * rounding down of small intervals does not keep it constant
+     * @param interval - the current interval in milliseconds
+     * @return the next interval in milliseconds
+     */
+    long nextInterval(long interval) {
+        if(backoffMultiplier <= 1) {
+            return Math.min(maxPollInterval.toMillis(), interval);
+        }
+        return Math.min(maxPollInterval.toMillis(), Math.max(interval + 1, (long) (interval * backoffMultiplier)));
+    }
+
+    /**
+     * Spread the interval randomly by the jitter ratio
+     * @param interval - the interval in milliseconds
+     * @return the interval with jitter applied
+     */
+    long withJitter(long interval) {
+        double delta = interval * jitter;
+        if(delta <= 0) {
+            return interval;
+        }
+        return (long) (interval + ThreadLocalRandom.current().nextDouble(-delta, delta));
+    }
+}
@@ -3,6 +3,7 @@ package com.selendroid.qa.utils;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import java.io.IOException;
@@ -123,4 +124,51 @@ public class PropertyUtil {
     public static long getLong(String key, String filename) {
         return Long.parseLong(loadProperties(filename).getProperty(key));
     }
+
+    /**
+     * Get a string property from the default property file by key, or the default value
+     * when the property is missing or blank
+     * @param key - the key for the property
+     * @param defaultValue - the value to return if the property is not set
+     * @return the value of the property
+     */
+    public static String getOrDefault(String key, String defaultValue) {
+        return StringUtils.defaultIfBlank(get(key), defaultValue);
+    }
+
+    /**
+     * Get an integer property from the default property file by key, or the default value
+     * when the property is missing or blank
+     * @param key - the key for the property
+     * @param defaultValue - the value to return if the property is not set
+     * @return the value of the property
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Get a long property from the default property file by key, or the default value
+     * when the property is missing or blank
+     * @param key - the key for the property
+     * @param defaultValue - the value to return if the property is not set
+     * @return the value of the property
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        return StringUtils.isBlank(value) ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * Get a boolean property from the default property file by key, or the default value
+     * when the property is missing or blank
+     * @param key - the key for the property
+     * @param defaultValue - the value to return if the property is not set
+     * @return the value of the property
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return StringUtils.isBlank(value) ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
 }
@@ -0,0 +1,220 @@
+package com.selendroid.qa.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.selendroid.qa.exception.FrameworkException;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.selendroid.qa.utils.PropertyUtil.getOrDefault;
+
+/**
+ * A content addressed screenshot store. Screenshots are named after the SHA-256 of the captured
+ * bytes so identical frames are only stored once, and a JSON index maps every test and step to
+ * the hash of its screenshot. New images can optionally be scaled down and re-encoded
+ * e.g. screenshot.scale=0.5 and screenshot.format=jpg. Everything is written under the screenshots
+ * directory of the {@link ArtifactRoot}
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class ScreenshotStore {
+
+    private static final String DIRECTORY = "screenshots/";
+
+    private static final String INDEX_FILE = DIRECTORY + "index.json";
+
+    private static final String DEFAULT_FORMAT = "png";
+
+    private static ScreenshotStore instance;
+
+    private final ArtifactRoot artifacts;
+
+    private final ScreenshotWriter writer;
+
+    private final double scale;
+
+    private final String format;
+
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+    private final List<IndexEntry> index = new ArrayList<>();
+
+    /**
+     * Create a store
+     * @param artifacts - where the index is written
+     * @param writer - the background writer of the screenshots
+     * @param scale - the scale applied to new screenshots, 1 keeps the original size
+     * @param format - the image format written e.g. png or jpg
+     */
+    public ScreenshotStore(ArtifactRoot artifacts, ScreenshotWriter writer, double scale, String format) {
+        this.artifacts = artifacts;
+        this.writer = writer;
+        this.scale = scale;
+        this.format = format.toLowerCase();
+    }
+
+    /**
+     * Get the shared store configured from application.properties
+     * @return the shared store
+     */
+    public static synchronized ScreenshotStore getInstance() {
+        if(instance == null) {
+            instance = new ScreenshotStore(ArtifactRoot.getInstance(), ScreenshotWriter.getInstance(),
+                    Double.parseDouble(getOrDefault("screenshot.scale", "1")),
+                    getOrDefault("screenshot.format", DEFAULT_FORMAT));
+        }
+        return instance;
+    }
+
+    /**
+     * Flush the shared store if anything was stored
+     * @param timeoutMillis - the maximum time to wait for pending screenshots
+     */
+    public static synchronized void flushInstance(long timeoutMillis) {
+        if(instance != null) {
+            instance.flush(timeoutMillis);
+        }
+    }
+
+    /**
+     * Close the shared store if anything was stored
+     * @param timeoutMillis - the maximum time to wait for pending screenshots
+     */
+    public static synchronized void closeInstance(long timeoutMillis) {
+        if(instance != null) {
+            instance.close(timeoutMillis);
+        }
+    }
+
+    /**
+     * Store a screenshot, the image is only written if no screenshot with the same content was
+     * stored or queued before. A screenshot that is dropped or fails to write is forgotten so
+     * the next identical capture writes it again
+     * @param step - the name of the step the screenshot belongs to
+     * @param image - the captured image bytes
+     * @return the hash of the screenshot
+     */
+    public String store(String step, byte[] image) {
+        String hash = sha256(image);
+        String file = hash + '.' + format;
+
+        if(stored.add(hash)) {
+            writer.submit(DIRECTORY + file, image, this::encode, written -> {
+                if(!written) {
+                    stored.remove(hash);
+                }
+            });
+        } else {
+            log.info("Screenshot {} already stored as {}", step, file);
+        }
+
+        synchronized(index) {
+            index.add(new IndexEntry(TestUtil.getCurrentTestName(), step, hash, file, System.currentTimeMillis()));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Wait for pending screenshots
+     * @param timeoutMillis - the maximum time to wait for pending screenshots
+     */
+    public void flush(long timeoutMillis) {
+        writer.flush(timeoutMillis);
+    }
+
+    /**
+     * Wait for pending screenshots and write the index, this is done once at the end of the run
+     * since an archived index cannot be rewritten
+     * @param timeoutMillis - the maximum time to wait for pending screenshots
+     */
+    public void close(long timeoutMillis) {
+        flush(timeoutMillis);
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        String json;
+        synchronized(index) {
+            json = gson.toJson(index);
+        }
+
+        try {
+            artifacts.write(INDEX_FILE, json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Failed to write the screenshot index", e);
+        }
+    }
+
+    private byte[] encode(byte[] image) {
+        if(scale == 1 && DEFAULT_FORMAT.equals(format)) {
+            return image;
+        }
+
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            // jpg has no alpha channel
+            int type = DEFAULT_FORMAT.equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+            BufferedImage target = new BufferedImage(width, height, type);
+            Graphics2D graphics = target.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            if(!ImageIO.write(target, format, output)) {
+                throw new FrameworkException("Unsupported screenshot format " + format);
+            }
+            return output.toByteArray();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for(byte b: digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new FrameworkException(e);
+        }
+    }
+
+    @Value
+    private static class IndexEntry {
+
+        String test;
+
+        String step;
+
+        String hash;
+
+        String file;
+
+        long timestamp;
+    }
+}
@@ -0,0 +1,203 @@
+package com.selendroid.qa.utils;
+
+import com.selendroid.qa.enums.OverflowPolicy;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
+import static com.selendroid.qa.utils.PropertyUtil.getOrDefault;
+
+/**
+ * Writes screenshots to the {@link ArtifactRoot} on a background thread so the test thread only pays for
+ * capturing the bytes. The queue is bounded, when it's full the producer either blocks or
+ * the oldest screenshot is dropped depending on the {@link OverflowPolicy}
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+public class ScreenshotWriter {
+
+    private static ScreenshotWriter instance;
+
+    private final BlockingQueue<Screenshot> queue;
+
+    private final OverflowPolicy policy;
+
+    private final ArtifactRoot artifacts;
+
+    private final Object lock = new Object();
+
+    private long pending;
+
+    /**
+     * Create a writer with its own background thread
+     * @param capacity - the maximum number of screenshots waiting to be written
+     * @param policy - what to do when the queue is full
+     * @param artifacts - where the screenshots are written
+     */
+    public ScreenshotWriter(int capacity, OverflowPolicy policy, ArtifactRoot artifacts) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.artifacts = artifacts;
+
+        Thread thread = new Thread(this::drain, "screenshot-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the shared writer configured from application.properties
+     * @return the shared writer
+     */
+    public static synchronized ScreenshotWriter getInstance() {
+        if(instance == null) {
+            instance = new ScreenshotWriter(getInt("screenshot.queue.capacity", 32),
+                    OverflowPolicy.valueOf(getOrDefault("screenshot.overflow.policy", OverflowPolicy.BLOCK.name())),
+                    ArtifactRoot.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a screenshot to be written
+     * @param name - the name relative to the run directory
+     * @param bytes - the image bytes
+     */
+    public void submit(String name, byte[] bytes) {
+        submit(name, bytes, UnaryOperator.identity());
+    }
+
+    /**
+     * Queue a screenshot to be encoded and written, the encoder runs on the writer thread
+     * @param name - the name relative to the run directory
+     * @param bytes - the image bytes
+     * @param encoder - converts the captured bytes to the bytes written to disk
+     */
+    public void submit(String name, byte[] bytes, UnaryOperator<byte[]> encoder) {
+        submit(name, bytes, encoder, written -> { });
+    }
+
+    /**
+     * Queue a screenshot to be encoded and written, the encoder and the callback run on the writer thread
+     * unless the screenshot is dropped or never queued
+     * @param name - the name relative to the run directory
+     * @param bytes - the image bytes
+     * @param encoder - converts the captured bytes to the bytes written to disk
+     * @param onComplete - called with true once the screenshot is written, false if it was dropped or failed
+     */
+    public void submit(String name, byte[] bytes, UnaryOperator<byte[]> encoder, Consumer<Boolean> onComplete) {
+        Screenshot screenshot = new Screenshot(name, bytes, encoder, onComplete);
+
+        synchronized(lock) {
+            pending++;
+        }
+
+        try {
+            if(OverflowPolicy.DROP_OLDEST == policy) {
+                while(!queue.offer(screenshot)) {
+                    Screenshot dropped = queue.poll();
+                    if(dropped != null) {
+                        log.warn("Screenshot queue is full, dropping {}", dropped.name);
+                        done(dropped, false);
+                    }
+                }
+            } else {
+                queue.put(screenshot);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted whilst queueing screenshot {}", name);
+            done(screenshot, false);
+        }
+    }
+
+    /**
+     * Wait until every queued screenshot is written
+     * @param timeoutMillis - the maximum time to wait
+     * @return true if everything was written, false if the timeout expired first
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized(lock) {
+            while(pending > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if(remaining <= 0) {
+                    log.warn("{} screenshots still pending after flush timeout", pending);
+                    return false;
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        while(true) {
+            Screenshot screenshot;
+            try {
+                screenshot = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            boolean written = false;
+            try {
+                write(screenshot);
+                written = true;
+                log.info("Captured screenshot {}", screenshot.name);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write screenshot {}", screenshot.name, e);
+            } finally {
+                done(screenshot, written);
+            }
+        }
+    }
+
+    private void write(Screenshot screenshot) throws IOException {
+        artifacts.write(screenshot.name, screenshot.encoder.apply(screenshot.bytes));
+    }
+
+    private void done(Screenshot screenshot, boolean written) {
+        try {
+            screenshot.onComplete.accept(written);
+        } catch (RuntimeException e) {
+            log.error("Completion callback failed for screenshot {}", screenshot.name, e);
+        }
+
+        synchronized(lock) {
+            pending--;
+            lock.notifyAll();
+        }
+    }
+
+    private static final class Screenshot {
+
+        private final String name;
+
+        private final byte[] bytes;
+
+        private final UnaryOperator<byte[]> encoder;
+
+        private final Consumer<Boolean> onComplete;
+
+        private Screenshot(String name, byte[] bytes, UnaryOperator<byte[]> encoder, Consumer<Boolean> onComplete) {
+            this.name = name;
+            this.bytes = bytes;
+            this.encoder = encoder;
+            this.onComplete = onComplete;
+        }
+    }
+}
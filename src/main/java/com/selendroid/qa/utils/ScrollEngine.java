@@ -0,0 +1,246 @@
+package com.selendroid.qa.utils;
+
+import com.selendroid.qa.enums.DirectionType;
+import com.selendroid.qa.enums.LocatorType;
+import com.selendroid.qa.enums.VerifyType;
+import com.selendroid.qa.hierarchy.Locator;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.hierarchy.UiHierarchy;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.MobileBy;
+import io.appium.java_client.ios.IOSDriver;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.Element;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+import static com.selendroid.qa.utils.PropertyUtil.getBoolean;
+import static com.selendroid.qa.utils.PropertyUtil.getInt;
+
+/**
+ * Scrolls until an element is on the screen. When the target has a locator the server can scroll
+ * to in one command (UiScrollable on Android, mobile: scroll on iOS) that is tried first, otherwise
+ * the engine swipes up to scroll.max.swipes times and stops early when the page source no longer
+ * changes, i.e. the end of the list was reached. The window size is fetched once per driver and
+ * kept until the app is reset, see {@link #invalidateWindowSize(AppiumDriver)}
+ *
+ * @author sanjay
+ *
+ */
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@SuppressWarnings("rawtypes")
+public class ScrollEngine {
+
+    private static final double SWIPE_START = 0.80;
+
+    private static final double SWIPE_END = 0.20;
+
+    private static final String TRUE = "true";
+
+    private static final Map<AppiumDriver, Dimension> WINDOW_SIZES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Scroll until the element located by the By is on the screen
+     * @param target - the By of the element
+     * @param direction - the direction to scroll the content in, e.g. DOWN to reveal what's below
+     * @param driver - the current driver
+     * @return the element or empty if it could not be found
+     */
+    public static Optional<WebElement> scrollTo(By target, DirectionType direction, AppiumDriver driver) {
+        Optional<Locator> locator = Locator.from(target);
+
+        if(locator.isPresent() && getBoolean("scroll.native.enabled", true)) {
+            Optional<WebElement> element = scrollNatively(locator.get(), direction, driver);
+            if(element.isPresent()) {
+                return element;
+            }
+        }
+
+        boolean isIOS = driver instanceof IOSDriver;
+        int maxSwipes = getInt("scroll.max.swipes", 10);
+        int lastHash = 0;
+
+        for(int swipe = 0; swipe <= maxSwipes; swipe++) {
+            String pageSource = driver.getPageSource();
+            UiHierarchy hierarchy = UiHierarchy.parse(pageSource, isIOS);
+
+            if(locator.isPresent()) {
+                Optional<Element> node = hierarchy.find(locator.get());
+                if(node.isPresent() && isOnScreen(hierarchy, node.get(), isIOS)) {
+                    return Optional.of(driver.findElement(locator.get().toBy()));
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                List<WebElement> elements = driver.findElements(target);
+                if(!elements.isEmpty() && TestUtil.isElementDisplayed(elements.get(0))) {
+                    return Optional.of(elements.get(0));
+                }
+            }
+
+            int hash = pageSource.hashCode();
+            if(swipe > 0 && hash == lastHash) {
+                log.info("Reached the end of the list scrolling {} to {}", direction, target);
+                return Optional.empty();
+            }
+            lastHash = hash;
+
+            if(swipe < maxSwipes) {
+                swipe(direction, driver);
+            }
+        }
+
+        log.warn("Gave up scrolling {} to {} after {} swipes", direction, target, maxSwipes);
+        return Optional.empty();
+    }
+
+    /**
+     * Scroll until an element without a known locator is displayed, e.g. a PageFactory proxy
+     * @param element - the element
+     * @param direction - the direction to scroll the content in
+     * @param driver - the current driver
+     * @return true if the element is displayed
+     */
+    public static boolean scrollUntilDisplayed(WebElement element, DirectionType direction, AppiumDriver driver) {
+        int maxSwipes = getInt("scroll.max.swipes", 10);
+        int lastHash = 0;
+
+        for(int swipe = 0; swipe <= maxSwipes; swipe++) {
+            if(TestUtil.isElementDisplayed(element)) {
+                return true;
+            }
+
+            int hash = driver.getPageSource().hashCode();
+            if(swipe > 0 && hash == lastHash) {
+                log.info("Reached the end of the list scrolling {}", direction);
+                return false;
+            }
+            lastHash = hash;
+
+            if(swipe < maxSwipes) {
+                swipe(direction, driver);
+            }
+        }
+
+        log.warn("Gave up scrolling {} after {} swipes", direction, maxSwipes);
+        return false;
+    }
+
+    /**
+     * Swipe once across the middle of the screen
+     * @param direction - the direction to scroll the content in
+     * @param driver - the current driver
+     */
+    public static void swipe(DirectionType direction, AppiumDriver driver) {
+        Dimension size = getWindowSize(driver);
+        int centerX = size.getWidth() / 2;
+        int centerY = size.getHeight() / 2;
+        int top = (int) (size.getHeight() * SWIPE_END);
+        int bottom = (int) (size.getHeight() * SWIPE_START);
+        int left = (int) (size.getWidth() * SWIPE_END);
+        int right = (int) (size.getWidth() * SWIPE_START);
+
+        switch(direction) {
+            case DOWN:
+                ActionUtil.scroll(centerX, bottom, centerX, top, driver);
+                break;
+            case UP:
+                ActionUtil.scroll(centerX, top, centerX, bottom, driver);
+                break;
+            case RIGHT:
+                ActionUtil.scroll(right, centerY, left, centerY, driver);
+                break;
+            case LEFT:
+                ActionUtil.scroll(left, centerY, right, centerY, driver);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported direction " + direction);
+        }
+    }
+
+    /**
+     * Get the window size of the driver, fetched once per driver
+     * @param driver - the current driver
+     * @return the window size
+     */
+    public static Dimension getWindowSize(AppiumDriver driver) {
+        return WINDOW_SIZES.computeIfAbsent(driver, key -> key.manage().window().getSize());
+    }
+
+    /**
+     * Forget the window size of the driver, it's fetched again on the next swipe. Called when the
+     * app is reset as it may come back in another orientation
+     * @param driver - the current driver
+     */
+    public static void invalidateWindowSize(AppiumDriver driver) {
+        WINDOW_SIZES.remove(driver);
+    }
+
+    private static Optional<WebElement> scrollNatively(Locator locator, DirectionType direction, AppiumDriver driver) {
+        try {
+            if(driver instanceof IOSDriver) {
+                Map<String, Object> params = new HashMap<>();
+                if(LocatorType.CLASSNAME == locator.getType()) {
+                    params.put("predicateString", "type == '" + locator.getValue().replace("'", "\\'") + "'");
+                    params.put("toVisible", true);
+                } else if(LocatorType.XPATH != locator.getType()) {
+                    params.put("name", locator.getValue());
+                } else {
+                    return Optional.empty();
+                }
+                driver.executeScript("mobile: scroll", params);
+                ScreenState.of(driver).invalidate();
+                return Optional.of(driver.findElement(locator.toBy()));
+            }
+
+            Optional<String> selector = toUiSelector(locator);
+            if(!selector.isPresent()) {
+                return Optional.empty();
+            }
+
+            String scrollable = "new UiScrollable(new UiSelector().scrollable(true))" +
+                    (direction == DirectionType.LEFT || direction == DirectionType.RIGHT ? ".setAsHorizontalList()" : "") +
+                    ".scrollIntoView(" + selector.get() + ")";
+            WebElement element = driver.findElement(MobileBy.AndroidUIAutomator(scrollable));
+            ScreenState.of(driver).invalidate();
+            return Optional.of(element);
+
+        } catch (WebDriverException e) {
+            // no scrollable container or the element is not in it, swipe instead
+            log.debug("Native scroll to {} failed, falling back to swipes", locator, e);
+            ScreenState.of(driver).invalidate();
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<String> toUiSelector(Locator locator) {
+        String value = locator.getValue().replace("\\", "\\\\").replace("\"", "\\\"");
+        switch(locator.getType()) {
+            case ID:
+                return Optional.of(value.contains(":id/") ? "new UiSelector().resourceId(\"" + value + "\")" :
+                        "new UiSelector().resourceIdMatches(\".*:id/" + value + "\")");
+            case ACCESSIBILITYID:
+                return Optional.of("new UiSelector().description(\"" + value + "\")");
+            case CLASSNAME:
+                return Optional.of("new UiSelector().className(\"" + value + "\")");
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static boolean isOnScreen(UiHierarchy hierarchy, Element node, boolean isIOS) {
+        String displayed = hierarchy.getValue(node, isIOS ? VerifyType.VISIBLE : VerifyType.DISPLAYED);
+        return displayed == null || displayed.isEmpty() || TRUE.equals(displayed);
+    }
+}
@@ -1,12 +1,15 @@
 package com.selendroid.qa.utils;
 
 import com.selendroid.qa.enums.LocatorType;
+import com.selendroid.qa.hierarchy.Locator;
+import com.selendroid.qa.hierarchy.ScreenState;
+import com.selendroid.qa.hierarchy.UiHierarchy;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.clipboard.HasClipboard;
+import io.appium.java_client.ios.IOSDriver;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.http.HttpResponse;
@@ -17,12 +20,13 @@ import org.openqa.selenium.Keys;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.WebElement;
 import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.URL;
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Common Test Utilities
@@ -34,9 +38,7 @@ import java.util.List;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class TestUtil {
 
-    public static final String SCREENSHOT_PATH = "/screenshots"; //NOSONAR
     private static final String SCREENSHOT_PREFIX = "Screenshot_";
-    private static final String SCREENSHOT_EXT = ".png";
 
     /**
      * Fail the test and capture a screenshot
@@ -111,19 +113,30 @@ public class TestUtil {
     }
 
     /**
-     * Capture a screenshot without failing the test
+     * Capture a screenshot without failing the test. The screenshot is stored once per content,
+     * see {@link ScreenshotStore}
      *
-     * @param screenshotName - the name of the screenshot
+     * @param screenshotName - the name of the screenshot, recorded as the step in the index
      * @param driver         - the current driver
      * @throws IOException - if an problem occurs
      */
     public static void captureScreenShot(String screenshotName, AppiumDriver driver) throws IOException {
         Validate.notEmpty(screenshotName);
-        URL path = TestUtil.class.getResource(SCREENSHOT_PATH);
-        File screenshot = driver.getScreenshotAs(OutputType.FILE);
-        String screenshotPath = path.toString() + '/' + screenshotName + SCREENSHOT_EXT;
-        FileUtils.copyFile(screenshot, new File(screenshotPath));
-        log.info("Captured screenshot {}", screenshotPath);
+        byte[] screenshot = driver.getScreenshotAs(OutputType.BYTES);
+        ScreenshotStore.getInstance().store(screenshotName, screenshot);
+    }
+
+    /**
+     * Get the name of the test method running on the current thread
+     *
+     * @return the class and method name of the test, or null outside of a test
+     */
+    public static String getCurrentTestName() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            return null;
+        }
+        return result.getTestClass().getName() + '.' + result.getMethod().getMethodName();
     }
 
     /**
@@ -133,6 +146,7 @@ public class TestUtil {
      */
     public static void hideKeyboard(AppiumDriver driver) {
         driver.hideKeyboard();
+        ScreenState.of(driver).invalidate();
     }
 
     /**
@@ -142,6 +156,7 @@ public class TestUtil {
      */
     public static void enterKeyboard(AppiumDriver driver) {
         driver.getKeyboard().sendKeys(Keys.ENTER);
+        ScreenState.of(driver).invalidate();
     }
 
     /**
@@ -167,6 +182,7 @@ public class TestUtil {
      */
     public static void acceptAlert(AppiumDriver driver) {
         driver.switchTo().alert().accept();
+        ScreenState.of(driver).invalidate();
     }
 
 
@@ -177,15 +193,11 @@ public class TestUtil {
      * @return true if the element is displayed, false otherwise
      */
     public static boolean isElementDisplayed(WebElement element) {
-        WaitUtil.pause(500);
-        boolean isPresent = false;
         try {
-            element.isDisplayed();
-            isPresent = true;
+            return element.isDisplayed();
         } catch (Exception e) {
-            isPresent = false;
+            return false;
         }
-        return isPresent && element.isDisplayed();
     }
 
     /**
@@ -209,15 +221,38 @@ public class TestUtil {
     }
 
     /**
-     * This function returns WebElement based on the LocatorType and value
+     * This function returns WebElement based on the LocatorType and value. When xpath.fast.path
+     * is enabled, xpath locators are evaluated against the page source on the client and resolved
+     * with a unique id or accessibility id, which UiAutomator2 finds much faster than xpath
      * @param locatorType - LocatorType to find the element Eg: ID, XPATH
      * @param value - expression value
      * @return - returns element
      */
     public static WebElement findElement(AppiumDriver driver, LocatorType locatorType, String value) {
+        if(LocatorType.XPATH == locatorType && PropertyUtil.getBoolean("xpath.fast.path", false)) {
+            Optional<Locator> locator = resolveXpath(driver, value);
+            if(locator.isPresent()) {
+                log.debug("Resolved xpath {} to {}", value, locator.get());
+                return driver.findElement(locator.get().toBy());
+            }
+        }
         return driver.findElement(locatorType.getLocatorType(), value);
     }
 
+    /**
+     * Evaluate the xpath against the current snapshot of the screen, or a page source parsed for
+     * this lookup only. A lookup never publishes a snapshot, that stays opt-in through
+     * BaseJourney.snapshot()
+     * @param driver - the current driver
+     * @param xpath - the xpath expression
+     * @return a unique id or accessibility id locator for the first match, or empty
+     */
+    private static Optional<Locator> resolveXpath(AppiumDriver driver, String xpath) {
+        UiHierarchy hierarchy = ScreenState.of(driver).getSnapshot()
+                .orElseGet(() -> UiHierarchy.parse(driver.getPageSource(), driver instanceof IOSDriver));
+        return hierarchy.find(new Locator(LocatorType.XPATH, xpath)).flatMap(hierarchy::toUniqueLocator);
+    }
+
     /**
      * This function set the value of clipboard
      * @param driver - the current driver
@@ -234,6 +269,7 @@ public class TestUtil {
      */
     public static void runAppInBackground(AppiumDriver driver, int durationInSecs) {
         driver.runAppInBackground(Duration.ofSeconds(durationInSecs));
+        ScreenState.of(driver).invalidate();
     }
 
     /**
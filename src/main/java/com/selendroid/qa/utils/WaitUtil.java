@@ -5,16 +5,19 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Utilities to provide waiting features in tests. Some pause the current thread,
- * whilst others use the Appium driver to wait for elements
+ * whilst others use the Appium driver to wait for elements. Element waits poll with
+ * {@link PollingWait} rather than sleeping for a fixed time
  * @author sanjay
  *
  */
@@ -45,6 +48,29 @@ public class WaitUtil {
         }
     }
 
+    /**
+     * Wait until the condition is met using the adaptive polling engine
+     * @param condition - the condition to wait for e.g. an ExpectedCondition
+     * @param seconds - the number of seconds to wait
+     * @param driver - the current driver
+     * @param <V> - the value returned by the condition
+     * @return the value returned by the condition once it is met
+     */
+    public static <V> V waitUntil(Function<? super WebDriver, V> condition, long seconds, AppiumDriver driver) {
+        return PollingWait.withTimeout(Duration.ofSeconds(seconds)).until(driver, condition);
+    }
+
+    /**
+     * Wait until the condition is met for the default number of seconds
+     * @param condition - the condition to wait for e.g. an ExpectedCondition
+     * @param driver - the current driver
+     * @param <V> - the value returned by the condition
+     * @return the value returned by the condition once it is met
+     */
+    public static <V> V waitUntil(Function<? super WebDriver, V> condition, AppiumDriver driver) {
+        return waitUntil(condition, DEFAULT_WAIT_SECONDS, driver);
+    }
+
     /**
      * Wait for a particular element to be visible for the default of 2 seconds
      * @param element - the element to wait on
@@ -61,9 +87,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public static void waitForElementToBeVisible(WebElement element, long seconds, AppiumDriver driver) {
-        pause(1000);
-        new WebDriverWait(driver, seconds)
-            .until(ExpectedConditions.visibilityOf(element));
+        waitUntil(ExpectedConditions.visibilityOf(element), seconds, driver);
     }
 
     /**
@@ -73,8 +97,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitForElementToBeVisible(final By locator, final AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.visibilityOfElementLocated(locator));
+        waitUntil(ExpectedConditions.visibilityOfElementLocated(locator), driver);
     }
 
     /**
@@ -84,9 +107,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public static void waitForElementToBeInVisible(WebElement element, long seconds, AppiumDriver driver) {
-        pause(1000);
-        new WebDriverWait(driver, seconds)
-            .until(ExpectedConditions.invisibilityOf(element));
+        waitUntil(ExpectedConditions.invisibilityOf(element), seconds, driver);
     }
 
 
@@ -97,8 +118,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public static void waitForElementToBeClickable(final WebElement element, final AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        waitUntil(ExpectedConditions.elementToBeClickable(element), driver);
     }
 
     /**
@@ -108,8 +128,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitForElementToBeInvisible(final By locator, final AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        waitUntil(ExpectedConditions.invisibilityOfElementLocated(locator), driver);
     }
 
     /**
@@ -118,8 +137,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitForElementsToBeInvisible(final List<WebElement> elements, final AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.invisibilityOfAllElements(elements));
+        waitUntil(ExpectedConditions.invisibilityOfAllElements(elements), driver);
     }
 
     /**
@@ -129,8 +147,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitForElementToBePresent(final By locator, final AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.presenceOfElementLocated(locator));
+        waitUntil(ExpectedConditions.presenceOfElementLocated(locator), driver);
     }
 
     /**
@@ -140,8 +157,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitUntilNestedElementPresent(WebElement element, By locator, AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.presenceOfNestedElementLocatedBy(element, locator));
+        waitUntil(ExpectedConditions.presenceOfNestedElementLocatedBy(element, locator), driver);
     }
 
     /**
@@ -150,8 +166,7 @@ public class WaitUtil {
      * @param driver - the current driver
      */
     public void waitForElementToBeNotPresent(final By locator, AppiumDriver driver) {
-        new WebDriverWait(driver, DEFAULT_WAIT_SECONDS)
-                .until(ExpectedConditions.not(ExpectedConditions.presenceOfAllElementsLocatedBy(locator)));
+        waitUntil(ExpectedConditions.not(ExpectedConditions.presenceOfAllElementsLocatedBy(locator)), driver);
     }
 
 }
@@ -0,0 +1,194 @@
+package com.selendroid.qa.appium;
+
+import com.selendroid.qa.exception.FrameworkException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Drives the scheduler with fake emulator and boot check scripts, so the boot, boot timeout and
+ * launch failure paths run without real devices. Requires a POSIX sh
+ *
+ * @author sanjay
+ *
+ */
+public class DeviceSchedulerTest {
+
+    private Path dir;
+
+    private DeviceScheduler scheduler;
+
+    @BeforeClass
+    public void createScripts() throws IOException {
+        dir = Files.createTempDirectory("fake-emulator");
+        // boots after a second: the marker file is what the boot check reports as booted
+        script("emulator.sh", "sleep 1; touch \"$1/$2.booted\"; exec sleep 60");
+        // never boots
+        script("hanging-emulator.sh", "exec sleep 60");
+        // exits straight away, like a second emulator for an AVD that is already running
+        script("exiting-emulator.sh", "exit 1");
+        script("boot-check.sh", "if [ -f \"$1/$2.booted\" ]; then echo 1; else echo 0; fi");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteScripts() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void shutdown() {
+        if(scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    @Test
+    public void leasesDeviceOnceBooted() {
+        scheduler = start("boot@serial-boot", "sh " + dir.resolve("emulator.sh") + " " + dir + " {1}", 10000);
+
+        DeviceLease lease = scheduler.acquire();
+        Assert.assertEquals(lease.getSerial(), "serial-boot");
+        lease.release();
+
+        Assert.assertEquals(scheduler.acquire().getSerial(), "serial-boot");
+        Assert.assertEquals(scheduler.getFailedCount(), 0);
+    }
+
+    @Test
+    public void failsFastWhenNoDeviceCanBoot() {
+        scheduler = start("hang@serial-hang", "sh " + dir.resolve("hanging-emulator.sh") + " {0}", 1500);
+
+        long start = System.currentTimeMillis();
+        Assert.assertThrows(FrameworkException.class, scheduler::acquire);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 15000, "acquire waited for the lease timeout");
+        Assert.assertEquals(scheduler.getFailedCount(), 1);
+    }
+
+    @Test
+    public void usesDeviceAsIsWhenLaunchFails() {
+        scheduler = start("missing@serial-missing", dir.resolve("no-such-emulator") + " {0}", 10000);
+
+        Assert.assertEquals(scheduler.acquire().getSerial(), "serial-missing");
+        Assert.assertEquals(scheduler.getFailedCount(), 0);
+    }
+
+    @Test
+    public void usesDeviceAsIsWhenEmulatorExits() {
+        scheduler = start("running@serial-running", "sh " + dir.resolve("exiting-emulator.sh") + " {0}", 10000);
+
+        Assert.assertEquals(scheduler.acquire().getSerial(), "serial-running");
+        Assert.assertEquals(scheduler.getFailedCount(), 0);
+    }
+
+    @Test
+    public void offersOnlineDeviceWithoutLaunching() throws IOException {
+        Files.createFile(dir.resolve("serial-online.booted"));
+        scheduler = start("online@serial-online", dir.resolve("no-such-emulator") + " {0}", 10000);
+
+        Assert.assertEquals(scheduler.acquire().getSerial(), "serial-online");
+    }
+
+    @Test
+    public void failsEveryWaitingWorkerWhenNoDeviceCanBoot() throws InterruptedException {
+        scheduler = start("hang@serial-hang", "sh " + dir.resolve("hanging-emulator.sh") + " {0}", 1500);
+        DeviceScheduler pool = scheduler;
+
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<DeviceLease>> leases = new ArrayList<>();
+            leases.add(workers.submit(pool::acquire));
+            leases.add(workers.submit(pool::acquire));
+
+            for(Future<DeviceLease> lease: leases) {
+                try {
+                    lease.get();
+                    Assert.fail("no device booted, acquire should fail");
+                } catch (ExecutionException e) {
+                    Assert.assertTrue(e.getCause() instanceof FrameworkException, "unexpected failure " + e.getCause());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void servesWaitingWorkersInTheOrderTheyAsked() throws InterruptedException {
+        scheduler = start("order@serial-order", dir.resolve("no-such-emulator") + " {0}", 10000);
+        DeviceScheduler pool = scheduler;
+        DeviceLease held = pool.acquire();
+
+        List<Integer> served = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> workers = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> {
+                DeviceLease lease = pool.acquire();
+                served.add(worker);
+                lease.release();
+            }, "worker-" + worker);
+            thread.start();
+            awaitWaiting(thread);
+            workers.add(thread);
+
+            // the first worker waits past a second before the others do, had it woken up empty
+            // handed to wait again it would be behind them
+            Thread.sleep(worker == 0 ? 500 : 0);
+        }
+
+        Thread.sleep(700);
+        held.release();
+        for(Thread thread: workers) {
+            thread.join(10000);
+        }
+
+        Assert.assertEquals(served, Arrays.asList(0, 1, 2, 3));
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(thread.getState() != Thread.State.TIMED_WAITING) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline, thread.getName() + " never waited for a device");
+            Thread.sleep(10);
+        }
+    }
+
+    private DeviceScheduler start(String entry, String emulatorCommand, long bootTimeoutMillis) {
+        DeviceScheduler created = DeviceScheduler.builder()
+                .pool(Collections.singletonList(entry))
+                .emulatorCommand(emulatorCommand)
+                .bootCommand("sh " + dir.resolve("boot-check.sh") + " " + dir + " {1}")
+                .bootExpected("1")
+                .bootTimeoutMillis(bootTimeoutMillis)
+                .leaseTimeoutMillis(60000)
+                .systemPortBase(8200)
+                .build();
+        created.start();
+        return created;
+    }
+
+    private void script(String name, String body) throws IOException {
+        Files.write(dir.resolve(name), ("#!/bin/sh\n" + body + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.selendroid.qa.appium;
+
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Counts the connections a stub Appium server accepts while several sessions run one after the
+ * other, with the shared {@link PooledHttpClientFactory} and with a default factory per session
+ * like appium.http.pool.shared=false
+ *
+ * @author sanjay
+ *
+ */
+public class PooledHttpClientFactoryTest {
+
+    private static final int SESSIONS = 4;
+
+    private StubAppiumServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubAppiumServer();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @BeforeMethod
+    public void forgetConnections() {
+        server.reset();
+    }
+
+    @Test
+    public void sessionsReuseTheConnectionsOfTheSharedPool() {
+        PooledHttpClientFactory shared = PooledHttpClientFactory.builder()
+                .maxIdleConnections(5)
+                .keepAliveSeconds(55)
+                .connectTimeoutSeconds(10)
+                .readTimeoutSeconds(10)
+                .writeTimeoutSeconds(10)
+                .retryOnConnectionFailure(true)
+                .tcpNoDelay(true)
+                .build();
+
+        runSessions(() -> shared);
+
+        Assert.assertEquals(server.count("POST /session"), SESSIONS);
+        Assert.assertEquals(server.getConnectionCount(), 1, "sequential sessions should share one connection");
+    }
+
+    @Test
+    public void sessionsOpenTheirOwnConnectionsWithoutTheSharedPool() {
+        runSessions(HttpClient.Factory::createDefault);
+
+        Assert.assertEquals(server.count("POST /session"), SESSIONS);
+        Assert.assertEquals(server.getConnectionCount(), SESSIONS, "every session should open its own connection");
+    }
+
+    /**
+     * Run sessions one after the other, each creates the session, reads the page source and quits
+     * @param factory - the factory of the HTTP clients of each session
+     */
+    private void runSessions(Supplier<HttpClient.Factory> factory) {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("platformName", "Android");
+        capabilities.setCapability("automationName", "UiAutomator2");
+
+        for(int i = 0; i < SESSIONS; i++) {
+            AndroidDriver<?> driver = new AndroidDriver<>(server.getUrl(), factory.get(), capabilities);
+            driver.getPageSource();
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.selendroid.qa.appium;
+
+import com.selendroid.qa.metrics.CommandMetrics;
+import com.selendroid.qa.metrics.Instrumentation;
+import com.selendroid.qa.utils.PropertyUtil;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Sends commands through the {@link ProfilingHttpClientFactory} to a stub Appium server and checks
+ * what {@link Instrumentation} recorded for them
+ *
+ * @author sanjay
+ *
+ */
+public class ProfilingHttpClientFactoryTest {
+
+    private StubAppiumServer server;
+
+    private HttpClient client;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = new StubAppiumServer();
+        client = new ProfilingHttpClientFactory(HttpClient.Factory.createDefault()).createClient(server.getUrl());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void recordsCountAndPayloadSizesPerCommand() throws IOException {
+        String body = "{\"value\":\"<hierarchy/>\"}";
+        server.respond("GET /session/:sessionId/source", 200, body);
+
+        client.execute(new HttpRequest(HttpMethod.GET, "/session/one/source"));
+        client.execute(new HttpRequest(HttpMethod.GET, "/session/two/source"));
+
+        CommandMetrics source = metrics("GET /session/:sessionId/source");
+        Assert.assertEquals(source.getLatency().getCount(), 2);
+        Assert.assertEquals(source.getRequestBytes().get(), 0);
+        Assert.assertEquals(source.getResponseBytes().get(), 2L * body.length());
+        Assert.assertEquals(source.getErrors().get(), 0);
+
+        byte[] click = "{\"id\":\"e1\"}".getBytes(StandardCharsets.UTF_8);
+        HttpRequest request = new HttpRequest(HttpMethod.POST, "/session/one/element/e1/click");
+        request.setContent(click);
+        HttpResponse response = client.execute(request);
+
+        CommandMetrics clicks = metrics("POST /session/:sessionId/element/:elementId/click");
+        Assert.assertEquals(clicks.getLatency().getCount(), 1);
+        Assert.assertEquals(clicks.getRequestBytes().get(), click.length);
+        Assert.assertEquals(clicks.getResponseBytes().get(), response.getContent().length);
+    }
+
+    @Test
+    public void countsErrorStatusesAsErrors() throws IOException {
+        String notFound = "{\"value\":{\"error\":\"no such element\",\"message\":\"missing\",\"stacktrace\":\"\"}}";
+        server.respond("POST /session/:sessionId/element", 404, notFound);
+        server.respond("GET /session/:sessionId/screenshot", 500,
+                "{\"value\":{\"error\":\"unknown error\",\"message\":\"crashed\",\"stacktrace\":\"\"}}");
+
+        HttpResponse response = client.execute(new HttpRequest(HttpMethod.POST, "/session/one/element"));
+        client.execute(new HttpRequest(HttpMethod.GET, "/session/one/screenshot"));
+        client.execute(new HttpRequest(HttpMethod.GET, "/session/one/screenshot"));
+
+        Assert.assertEquals(response.getStatus(), 404);
+        CommandMetrics find = metrics("POST /session/:sessionId/element");
+        Assert.assertEquals(find.getErrors().get(), 1);
+        Assert.assertEquals(find.getResponseBytes().get(), notFound.length());
+        Assert.assertEquals(metrics("GET /session/:sessionId/screenshot").getErrors().get(), 2);
+    }
+
+    @Test
+    public void countsFailedRequestsAsErrors() throws IOException {
+        StubAppiumServer stopped = new StubAppiumServer();
+        URL url = stopped.getUrl();
+        stopped.close();
+        HttpClient unreachable = new ProfilingHttpClientFactory(HttpClient.Factory.createDefault()).createClient(url);
+
+        try {
+            unreachable.execute(new HttpRequest(HttpMethod.DELETE, "/session/one"));
+            Assert.fail("the server is stopped, the request should fail");
+        } catch (IOException expected) {
+            // recorded before it is rethrown
+        }
+
+        CommandMetrics delete = metrics("DELETE /session/:sessionId");
+        Assert.assertEquals(delete.getLatency().getCount(), 1);
+        Assert.assertEquals(delete.getResponseBytes().get(), 0);
+        Assert.assertEquals(delete.getErrors().get(), 1);
+    }
+
+    @Test
+    public void namesCommandsWithoutIds() {
+        Assert.assertEquals(command(HttpMethod.POST, "/wd/hub/session"), "POST /session");
+        Assert.assertEquals(command(HttpMethod.GET, "/wd/hub/session/8f2b-11/source"),
+                "GET /session/:sessionId/source");
+        Assert.assertEquals(command(HttpMethod.POST, "/session/8f2b-11/element/0.123-4/click"),
+                "POST /session/:sessionId/element/:elementId/click");
+        Assert.assertEquals(command(HttpMethod.GET, "/session/8f2b-11/element/active"),
+                "GET /session/:sessionId/element/active");
+        Assert.assertEquals(command(HttpMethod.POST, "/session/8f2b-11/elements"),
+                "POST /session/:sessionId/elements");
+        Assert.assertEquals(command(HttpMethod.GET, "/wd/hub/status?verbose=true"), "GET /status");
+    }
+
+    @Test
+    public void profilesOnlyWhenEnabled() {
+        Properties properties = PropertyUtil.loadProperties();
+        String profile = properties.getProperty("appium.http.profile");
+        String shared = properties.getProperty("appium.http.pool.shared");
+        try {
+            properties.setProperty("appium.http.profile", "false");
+            properties.setProperty("appium.http.pool.shared", "true");
+            Assert.assertSame(DriverWrapper.getHttpClientFactory(), PooledHttpClientFactory.getInstance());
+
+            properties.setProperty("appium.http.pool.shared", "false");
+            Assert.assertFalse(DriverWrapper.getHttpClientFactory() instanceof ProfilingHttpClientFactory);
+
+            properties.setProperty("appium.http.profile", "true");
+            Assert.assertTrue(DriverWrapper.getHttpClientFactory() instanceof ProfilingHttpClientFactory);
+
+        } finally {
+            restore(properties, "appium.http.profile", profile);
+            restore(properties, "appium.http.pool.shared", shared);
+        }
+    }
+
+    private CommandMetrics metrics(String command) {
+        String journey = getClass().getName();
+        return Instrumentation.getAllCommands().stream()
+                .filter(metrics -> journey.equals(metrics.getJourney()) && command.equals(metrics.getCommand()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No metrics recorded for " + command));
+    }
+
+    private static String command(HttpMethod method, String uri) {
+        return ProfilingHttpClientFactory.toCommand(new HttpRequest(method, uri));
+    }
+
+    private static void restore(Properties properties, String key, String value) {
+        if(value == null) {
+            properties.remove(key);
+        } else {
+            properties.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.selendroid.qa.appium;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local W3C WebDriver server that answers just enough of the Appium protocol for a UiAutomator2
+ * session: new session, session details, context, page source, window size, find element and element state.
+ * Every request is counted by command (method and path with the session and element ids
+ * replaced e.g. GET /session/:sessionId/source) and every TCP connection by its client address,
+ * so tests can assert the round trips a framework call costs
+ *
+ * @author sanjay
+ *
+ */
+public class StubAppiumServer implements Closeable {
+
+    /**
+     * The W3C key of an element reference
+     */
+    public static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+
+    private static final String BASE_PATH = "/wd/hub";
+
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    private volatile String pageSource = "<hierarchy/>";
+
+    /**
+     * Start a server on a free port of the loopback interface
+     * @throws IOException - if the server could not be started
+     */
+    public StubAppiumServer() throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-appium-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * The url the driver connects to, e.g. http://127.0.0.1:port/wd/hub
+     * @return the url of the server
+     */
+    public URL getUrl() {
+        try {
+            return new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), BASE_PATH);
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Set the page source returned by GET /session/:sessionId/source
+     * @param pageSource - the page source xml
+     */
+    public void setPageSource(String pageSource) {
+        this.pageSource = pageSource;
+    }
+
+    /**
+     * Answer a command with a fixed status and body instead of the default answer
+     * @param command - the command e.g. GET /session/:sessionId/source
+     * @param status - the HTTP status
+     * @param body - the JSON body
+     */
+    public void respond(String command, int status, String body) {
+        responses.put(command, new Response(status, body));
+    }
+
+    /**
+     * The number of requests received for a command
+     * @param command - the command e.g. GET /session/:sessionId/source
+     * @return the number of requests
+     */
+    public int count(String command) {
+        AtomicInteger count = requests.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * The number of requests received for all the commands on an element,
+     * e.g. GET /session/:sessionId/element/:elementId/displayed, and for finding elements
+     * @return the number of element requests
+     */
+    public int countElementRequests() {
+        return requests.entrySet().stream()
+                .filter(entry -> entry.getKey().contains("/element"))
+                .mapToInt(entry -> entry.getValue().get())
+                .sum();
+    }
+
+    /**
+     * The requests received so far by command
+     * @return a copy of the counters
+     */
+    public Map<String, Integer> getRequests() {
+        Map<String, Integer> copy = new HashMap<>();
+        requests.forEach((command, count) -> copy.put(command, count.get()));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * The number of TCP connections the server accepted so far
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Forget the requests and connections counted so far
+     */
+    public void reset() {
+        requests.clear();
+        connections.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Name a request path after its command, the ids are replaced so requests of different
+     * sessions and elements are counted together
+     * @param method - the HTTP method
+     * @param path - the request path
+     * @return the command e.g. POST /session/:sessionId/element/:elementId/click
+     */
+    static String toCommand(String method, String path) {
+        String[] segments = (path.startsWith(BASE_PATH) ? path.substring(BASE_PATH.length()) : path).split("/");
+        StringBuilder command = new StringBuilder(method);
+        for(int i = 1; i < segments.length; i++) {
+            command.append('/');
+            if("session".equals(segments[i - 1])) {
+                command.append(":sessionId");
+            } else if("element".equals(segments[i - 1]) && !"active".equals(segments[i])) {
+                command.append(":elementId");
+            } else {
+                command.append(segments[i]);
+            }
+        }
+        return command.insert(method.length(), ' ').toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress());
+        drain(exchange.getRequestBody());
+
+        String command = toCommand(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+        requests.computeIfAbsent(command, key -> new AtomicInteger()).incrementAndGet();
+
+        Response override = responses.get(command);
+        Response response = override != null ? override : answer(command);
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private Response answer(String command) {
+        switch(command) {
+            case "POST /session":
+                Map<String, Object> session = new HashMap<>();
+                session.put("sessionId", "session-" + sessions.incrementAndGet());
+                session.put("capabilities", capabilities());
+                return ok(session);
+            case "GET /session/:sessionId":
+                return ok(capabilities());
+            case "GET /session/:sessionId/context":
+                return ok("NATIVE_APP");
+            case "GET /session/:sessionId/source":
+                return ok(pageSource);
+            case "POST /session/:sessionId/element":
+                return ok(Collections.singletonMap(ELEMENT_KEY, "element-1"));
+            case "POST /session/:sessionId/elements":
+                return ok(Collections.singletonList(Collections.singletonMap(ELEMENT_KEY, "element-1")));
+            case "GET /session/:sessionId/element/:elementId/displayed":
+            case "GET /session/:sessionId/element/:elementId/enabled":
+                return ok(true);
+            case "GET /session/:sessionId/element/:elementId/text":
+                return ok("");
+            case "GET /session/:sessionId/window/rect":
+                Map<String, Object> rect = new HashMap<>();
+                rect.put("x", 0);
+                rect.put("y", 0);
+                rect.put("width", 1080);
+                rect.put("height", 1794);
+                return ok(rect);
+            default:
+                return ok(null);
+        }
+    }
+
+    private static Map<String, Object> capabilities() {
+        Map<String, Object> capabilities = new HashMap<>();
+        capabilities.put("platformName", "Android");
+        capabilities.put("automationName", "UiAutomator2");
+        capabilities.put("deviceName", "stub");
+        return capabilities;
+    }
+
+    private static Response ok(Object value) {
+        return new Response(200, GSON.toJson(Collections.singletonMap("value", value)));
+    }
+
+    private static void drain(InputStream input) throws IOException {
+        byte[] buffer = new byte[4096];
+        while(input.read(buffer) != -1) {
+            // the stub answers by command only
+        }
+    }
+
+    private static final class Response {
+
+        private final int status;
+
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.enums.CacheScope;
+import com.selendroid.qa.screens.main.SelendroidElements;
+import com.selendroid.qa.utils.PropertyUtil;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.CacheLookup;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The metadata resolved once per elements class: the field getters, the By per platform and
+ * the lookup cache scope of every field
+ *
+ * @author sanjay
+ *
+ */
+public class ElementsMetadataTest {
+
+    private static final String ANDROID = "Android";
+
+    private static final String UI_AUTOMATOR = "UiAutomator2";
+
+    private static final int LOOKUPS = 100;
+
+    @Test
+    public void resolvesTheMetadataOncePerClass() {
+        ElementsMetadata metadata = ElementsMetadata.of(SelendroidElements.class);
+
+        Assert.assertSame(ElementsMetadata.of(SelendroidElements.class), metadata);
+        Assert.assertEquals(metadata.getFields().size(), SelendroidElements.class.getDeclaredFields().length);
+        Assert.assertEquals(metadata.getFields().get(0).getName(), "title");
+        Assert.assertEquals(metadata.getKeys().length, metadata.getFields().size());
+    }
+
+    @Test
+    public void readsTheFieldsWithTheirGetter() {
+        PlatformElements elements = new PlatformElements();
+        elements.button = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {WebElement.class}, (proxy, method, args) -> null);
+
+        Assert.assertSame(field(PlatformElements.class, "button").read(elements), elements.button);
+        Assert.assertNull(field(PlatformElements.class, "label").read(elements));
+    }
+
+    @Test
+    public void cachesTheByPerPlatform() {
+        ElementsMetadata.ElementField button = field(PlatformElements.class, "button");
+
+        By android = button.getBy(ANDROID, UI_AUTOMATOR);
+        By ios = button.getBy("iOS", "XCUITest");
+
+        Assert.assertSame(button.getBy(ANDROID, UI_AUTOMATOR), android);
+        Assert.assertSame(button.getBy("iOS", "XCUITest"), ios);
+        Assert.assertTrue(android.toString().contains("io.selendroid.testapp:id/buttonTest"), android.toString());
+        Assert.assertTrue(ios.toString().contains("buttonTestCD"), ios.toString());
+    }
+
+    @Test
+    public void cachedByIsFasterThanBuildingItForEveryJourney() {
+        List<ElementsMetadata.ElementField> fields = ElementsMetadata.of(SelendroidElements.class).getFields();
+
+        // warm up both paths before timing them
+        build(LOOKUPS);
+        cached(fields, LOOKUPS);
+
+        long built = build(LOOKUPS);
+        long cached = cached(fields, LOOKUPS);
+
+        Assert.assertTrue(cached < built,
+                "cached locators took " + cached + " ns, building them took " + built + " ns");
+    }
+
+    @Test
+    public void fieldScopeComesFirst() {
+        Assert.assertEquals(field(ScopedElements.class, "scoped").getScope(), CacheScope.NONE);
+    }
+
+    @Test
+    public void cacheLookupKeepsTheElementForTheJourney() {
+        Assert.assertEquals(field(ScopedElements.class, "cached").getScope(), CacheScope.JOURNEY);
+    }
+
+    @Test
+    public void classScopeAppliesToTheOtherFields() {
+        Assert.assertEquals(field(ScopedElements.class, "plain").getScope(), CacheScope.ACTION);
+    }
+
+    @Test
+    public void configuredScopeAppliesWithoutAnnotations() {
+        Properties properties = PropertyUtil.loadProperties();
+        String scope = properties.getProperty("elements.cache.scope");
+        try {
+            properties.setProperty("elements.cache.scope", "none");
+            Assert.assertEquals(field(ConfiguredElements.class, "label").getScope(), CacheScope.NONE);
+            Assert.assertEquals(field(ConfiguredElements.class, "button").getScope(), CacheScope.JOURNEY);
+
+        } finally {
+            if(scope == null) {
+                properties.remove("elements.cache.scope");
+            } else {
+                properties.setProperty("elements.cache.scope", scope);
+            }
+        }
+    }
+
+    private static ElementsMetadata.ElementField field(Class<?> elementsClass, String name) {
+        return ElementsMetadata.of(elementsClass).getFields().stream()
+                .filter(field -> field.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No field " + name));
+    }
+
+    private static long build(int lookups) {
+        long start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            for(Field field: SelendroidElements.class.getDeclaredFields()) {
+                DefaultElementByBuilder byBuilder = new DefaultElementByBuilder(ANDROID, UI_AUTOMATOR);
+                byBuilder.setAnnotated(field);
+                byBuilder.buildBy();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long cached(List<ElementsMetadata.ElementField> fields, int lookups) {
+        long start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            for(ElementsMetadata.ElementField field: fields) {
+                field.getBy(ANDROID, UI_AUTOMATOR);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    public static class PlatformElements extends BaseElements<Component> {
+
+        @AndroidFindBy(id = "io.selendroid.testapp:id/title")
+        private WebElement label;
+
+        @AndroidFindBy(id = "io.selendroid.testapp:id/buttonTest")
+        @iOSXCUITFindBy(accessibility = "buttonTestCD")
+        private WebElement button;
+    }
+
+    /**
+     * Only resolved whilst elements.cache.scope is none, see {@link #configuredScopeAppliesWithoutAnnotations()}
+     */
+    public static class ConfiguredElements extends BaseElements<Component> {
+
+        @AndroidFindBy(id = "io.selendroid.testapp:id/title")
+        private WebElement label;
+
+        @CacheLookup
+        @AndroidFindBy(id = "io.selendroid.testapp:id/buttonTest")
+        private WebElement button;
+    }
+
+    @LookupCache(CacheScope.ACTION)
+    public static class ScopedElements extends BaseElements<Component> {
+
+        @LookupCache(CacheScope.NONE)
+        @CacheLookup
+        @AndroidFindBy(id = "io.selendroid.testapp:id/buttonTest")
+        private WebElement scoped;
+
+        @CacheLookup
+        @AndroidFindBy(id = "io.selendroid.testapp:id/my_text_field")
+        private WebElement cached;
+
+        @AndroidFindBy(id = "io.selendroid.testapp:id/title")
+        private WebElement plain;
+    }
+}
@@ -0,0 +1,121 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.appium.StubAppiumServer;
+import com.selendroid.qa.enums.PlatformType;
+import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.screens.main.SelendroidElements;
+import com.selendroid.qa.screens.main.SelendroidJourney;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+/**
+ * Resolution of the {@link Elements} target and the elements constructor once per journey class,
+ * and the time it takes to construct journeys of a 200 field elements class
+ *
+ * @author sanjay
+ *
+ */
+@SuppressWarnings("rawtypes")
+public class JourneyMetadataTest {
+
+    private static final int JOURNEYS = 20;
+
+    @Test
+    public void resolvesTheMetadataOncePerClass() {
+        Assert.assertSame(JourneyMetadata.of(SelendroidJourney.class), JourneyMetadata.of(SelendroidJourney.class));
+        Assert.assertNotNull(JourneyMetadata.of(SelendroidJourney.class).getReset());
+        Assert.assertNull(JourneyMetadata.of(WideJourney.class).getReset());
+    }
+
+    @Test
+    public void createsElementsWithTheCachedConstructor() {
+        JourneyMetadata metadata = JourneyMetadata.of(SelendroidJourney.class);
+
+        Assert.assertSame(metadata.getConstructor(SelendroidElements.class), metadata.getConstructor(SelendroidElements.class));
+
+        BaseElements first = metadata.newElements(PlatformType.ANDROID);
+        BaseElements second = metadata.newElements(PlatformType.ANDROID);
+        Assert.assertTrue(first instanceof SelendroidElements);
+        Assert.assertNotSame(first, second, "every journey gets its own elements");
+        Assert.assertTrue(metadata.newElements(PlatformType.IOS) instanceof SelendroidElements);
+    }
+
+    @Test
+    public void createsTheElementsOfThePlatform() {
+        JourneyMetadata metadata = JourneyMetadata.of(SplitJourney.class);
+
+        Assert.assertTrue(metadata.newElements(PlatformType.ANDROID) instanceof AndroidOnlyElements);
+        Assert.assertTrue(metadata.newElements(PlatformType.IOS) instanceof IOSOnlyElements);
+    }
+
+    @Test
+    public void failsWithoutAPublicConstructor() {
+        JourneyMetadata metadata = JourneyMetadata.of(HiddenJourney.class);
+
+        Assert.assertThrows(FrameworkException.class, () -> metadata.newElements(PlatformType.ANDROID));
+    }
+
+    @Test
+    public void constructsJourneysOfAWideElementsClass() throws IOException {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("platformName", "Android");
+        capabilities.setCapability("automationName", "UiAutomator2");
+
+        try (StubAppiumServer server = new StubAppiumServer()) {
+            AndroidDriver driver = new AndroidDriver(server.getUrl(), capabilities);
+            try {
+                // warm up the page factory with another journey, the first wide journey then pays
+                // mostly for resolving the metadata of its class
+                BaseJourney journey = new SelendroidJourney();
+                journey.bind(driver, PlatformType.ANDROID);
+
+                journey = new WideJourney();
+                long start = System.nanoTime();
+                journey.bind(driver, PlatformType.ANDROID);
+                long cold = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for(int i = 0; i < JOURNEYS; i++) {
+                    journey = new WideJourney();
+                    journey.bind(driver, PlatformType.ANDROID);
+                }
+                long warm = (System.nanoTime() - start) / JOURNEYS;
+
+                Assert.assertNotNull(journey.getComponent("field200"));
+                Assert.assertTrue(warm < cold,
+                        "a journey took " + warm + " ns on average, the first one " + cold + " ns");
+
+            } finally {
+                driver.quit();
+            }
+        }
+    }
+
+    @Elements(elements = WideElements.class)
+    public static class WideJourney extends BaseJourney {
+    }
+
+    @Elements(androidElements = AndroidOnlyElements.class, iosElements = IOSOnlyElements.class)
+    public static class SplitJourney extends BaseJourney {
+    }
+
+    public static class AndroidOnlyElements extends BaseElements<Component> {
+    }
+
+    public static class IOSOnlyElements extends BaseElements<Component> {
+    }
+
+    @Elements(elements = HiddenElements.class)
+    public static class HiddenJourney extends BaseJourney {
+    }
+
+    public static class HiddenElements extends BaseElements<Component> {
+
+        private HiddenElements() {
+        }
+    }
+}
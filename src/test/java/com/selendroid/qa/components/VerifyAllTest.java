@@ -0,0 +1,132 @@
+package com.selendroid.qa.components;
+
+import com.selendroid.qa.appium.StubAppiumServer;
+import com.selendroid.qa.enums.PlatformType;
+import com.selendroid.qa.enums.VerifyType;
+import com.selendroid.qa.hierarchy.PageSources;
+import com.selendroid.qa.screens.main.SelendroidJourney;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.selendroid.qa.screens.main.SelendroidElementsComponents.*;
+
+/**
+ * Counts the requests {@link BaseJourney#verifyAll(Verification...)} sends to a stub Appium server:
+ * a whole screen is verified from a single page source and without any element round trip
+ *
+ * @author sanjay
+ *
+ */
+@SuppressWarnings("rawtypes")
+public class VerifyAllTest {
+
+    private static final String SOURCE = "GET /session/:sessionId/source";
+
+    private static final String FIND_ELEMENT = "POST /session/:sessionId/element";
+
+    private StubAppiumServer server;
+
+    private AndroidDriver driver;
+
+    private BaseJourney journey;
+
+    @BeforeClass
+    public void startSession() throws IOException {
+        server = new StubAppiumServer();
+        server.setPageSource(PageSources.read(PageSources.HOME));
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("platformName", "Android");
+        capabilities.setCapability("automationName", "UiAutomator2");
+        driver = new AndroidDriver(server.getUrl(), capabilities);
+
+        journey = new SelendroidJourney();
+        journey.bind(driver, PlatformType.ANDROID);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        if(driver != null) {
+            driver.quit();
+        }
+        if(server != null) {
+            server.close();
+        }
+    }
+
+    @BeforeMethod
+    public void forgetScreen() {
+        journey.invalidate();
+        server.reset();
+    }
+
+    @Test
+    public void verifiesTheScreenFromOnePageSource() {
+        Map<String, Boolean> results = journey.verifyAll(homeScreen());
+
+        Assert.assertEquals(results.size(), homeScreen().length);
+        Assert.assertFalse(results.containsValue(false), "every verification should pass " + results);
+        Assert.assertEquals(server.count(SOURCE), 1, "requests " + server.getRequests());
+        Assert.assertEquals(server.countElementRequests(), 0, "requests " + server.getRequests());
+    }
+
+    @Test
+    public void reusesTheSnapshot() {
+        journey.snapshot();
+        Map<String, Boolean> results = journey.verifyAll(homeScreen());
+
+        Assert.assertFalse(results.containsValue(false), "every verification should pass " + results);
+        Assert.assertEquals(server.count(SOURCE), 1, "requests " + server.getRequests());
+        Assert.assertEquals(server.countElementRequests(), 0, "requests " + server.getRequests());
+    }
+
+    @Test
+    public void reportsMismatchesFromThePageSource() {
+        Map<String, Boolean> results = journey.verifyAll(
+                Verification.of(TITLE, VerifyType.TEXT, "another-app"),
+                Verification.of(EN_BTN, VerifyType.TEXT, "EN Button"));
+
+        Assert.assertFalse(results.get(TITLE.getFieldName()));
+        Assert.assertTrue(results.get(EN_BTN.getFieldName()));
+        Assert.assertEquals(server.count(SOURCE), 1, "requests " + server.getRequests());
+        Assert.assertEquals(server.countElementRequests(), 0, "requests " + server.getRequests());
+    }
+
+    @Test
+    public void verifiesComponentsMissingFromThePageSourceOnTheLiveElement() {
+        // the dialog button is not on the home screen yet
+        Map<String, Boolean> results = journey.verifyAll(
+                Verification.of(TITLE, VerifyType.TEXT, "selendroid-test-app"),
+                Verification.of(NO_BTN, VerifyType.DISPLAYED, "true"));
+
+        Assert.assertTrue(results.get(TITLE.getFieldName()));
+        Assert.assertTrue(results.get(NO_BTN.getFieldName()));
+        Assert.assertEquals(server.count(SOURCE), 1, "requests " + server.getRequests());
+        Assert.assertEquals(server.count(FIND_ELEMENT), 1, "requests " + server.getRequests());
+    }
+
+    private static Verification[] homeScreen() {
+        return new Verification[] {
+                Verification.of(TITLE, VerifyType.TEXT, "selendroid-test-app"),
+                Verification.of(EN_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(BROWSER_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(REG_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(TEXT_BOX, VerifyType.DISPLAYED, "true"),
+                Verification.of(PROGRESS_BAR_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(CHECK_BOX, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_TEXT_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_TOAST_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(POPUP_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(EXCPT_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(TEXT_EXCPTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_FCS_BTN, VerifyType.DISPLAYED, "true")};
+    }
+}
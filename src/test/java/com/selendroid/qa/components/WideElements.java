@@ -0,0 +1,614 @@
+package com.selendroid.qa.components;
+
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import org.openqa.selenium.WebElement;
+
+/**
+ * An elements class with 200 fields, to time the construction of journeys with large screens.
+ * Only {@link JourneyMetadataTest} uses it, so its metadata is resolved by the first journey timed
+ *
+ * @author sanjay
+ *
+ */
+public class WideElements extends BaseElements<Component> {
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field001")
+    private WebElement field001;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field002")
+    private WebElement field002;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field003")
+    private WebElement field003;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field004")
+    private WebElement field004;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field005")
+    private WebElement field005;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field006")
+    private WebElement field006;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field007")
+    private WebElement field007;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field008")
+    private WebElement field008;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field009")
+    private WebElement field009;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field010")
+    private WebElement field010;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field011")
+    private WebElement field011;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field012")
+    private WebElement field012;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field013")
+    private WebElement field013;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field014")
+    private WebElement field014;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field015")
+    private WebElement field015;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field016")
+    private WebElement field016;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field017")
+    private WebElement field017;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field018")
+    private WebElement field018;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field019")
+    private WebElement field019;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field020")
+    private WebElement field020;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field021")
+    private WebElement field021;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field022")
+    private WebElement field022;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field023")
+    private WebElement field023;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field024")
+    private WebElement field024;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field025")
+    private WebElement field025;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field026")
+    private WebElement field026;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field027")
+    private WebElement field027;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field028")
+    private WebElement field028;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field029")
+    private WebElement field029;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field030")
+    private WebElement field030;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field031")
+    private WebElement field031;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field032")
+    private WebElement field032;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field033")
+    private WebElement field033;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field034")
+    private WebElement field034;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field035")
+    private WebElement field035;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field036")
+    private WebElement field036;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field037")
+    private WebElement field037;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field038")
+    private WebElement field038;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field039")
+    private WebElement field039;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field040")
+    private WebElement field040;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field041")
+    private WebElement field041;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field042")
+    private WebElement field042;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field043")
+    private WebElement field043;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field044")
+    private WebElement field044;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field045")
+    private WebElement field045;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field046")
+    private WebElement field046;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field047")
+    private WebElement field047;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field048")
+    private WebElement field048;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field049")
+    private WebElement field049;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field050")
+    private WebElement field050;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field051")
+    private WebElement field051;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field052")
+    private WebElement field052;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field053")
+    private WebElement field053;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field054")
+    private WebElement field054;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field055")
+    private WebElement field055;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field056")
+    private WebElement field056;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field057")
+    private WebElement field057;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field058")
+    private WebElement field058;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field059")
+    private WebElement field059;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field060")
+    private WebElement field060;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field061")
+    private WebElement field061;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field062")
+    private WebElement field062;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field063")
+    private WebElement field063;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field064")
+    private WebElement field064;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field065")
+    private WebElement field065;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field066")
+    private WebElement field066;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field067")
+    private WebElement field067;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field068")
+    private WebElement field068;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field069")
+    private WebElement field069;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field070")
+    private WebElement field070;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field071")
+    private WebElement field071;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field072")
+    private WebElement field072;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field073")
+    private WebElement field073;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field074")
+    private WebElement field074;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field075")
+    private WebElement field075;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field076")
+    private WebElement field076;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field077")
+    private WebElement field077;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field078")
+    private WebElement field078;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field079")
+    private WebElement field079;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field080")
+    private WebElement field080;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field081")
+    private WebElement field081;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field082")
+    private WebElement field082;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field083")
+    private WebElement field083;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field084")
+    private WebElement field084;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field085")
+    private WebElement field085;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field086")
+    private WebElement field086;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field087")
+    private WebElement field087;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field088")
+    private WebElement field088;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field089")
+    private WebElement field089;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field090")
+    private WebElement field090;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field091")
+    private WebElement field091;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field092")
+    private WebElement field092;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field093")
+    private WebElement field093;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field094")
+    private WebElement field094;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field095")
+    private WebElement field095;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field096")
+    private WebElement field096;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field097")
+    private WebElement field097;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field098")
+    private WebElement field098;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field099")
+    private WebElement field099;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field100")
+    private WebElement field100;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field101")
+    private WebElement field101;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field102")
+    private WebElement field102;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field103")
+    private WebElement field103;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field104")
+    private WebElement field104;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field105")
+    private WebElement field105;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field106")
+    private WebElement field106;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field107")
+    private WebElement field107;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field108")
+    private WebElement field108;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field109")
+    private WebElement field109;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field110")
+    private WebElement field110;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field111")
+    private WebElement field111;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field112")
+    private WebElement field112;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field113")
+    private WebElement field113;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field114")
+    private WebElement field114;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field115")
+    private WebElement field115;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field116")
+    private WebElement field116;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field117")
+    private WebElement field117;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field118")
+    private WebElement field118;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field119")
+    private WebElement field119;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field120")
+    private WebElement field120;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field121")
+    private WebElement field121;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field122")
+    private WebElement field122;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field123")
+    private WebElement field123;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field124")
+    private WebElement field124;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field125")
+    private WebElement field125;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field126")
+    private WebElement field126;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field127")
+    private WebElement field127;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field128")
+    private WebElement field128;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field129")
+    private WebElement field129;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field130")
+    private WebElement field130;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field131")
+    private WebElement field131;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field132")
+    private WebElement field132;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field133")
+    private WebElement field133;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field134")
+    private WebElement field134;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field135")
+    private WebElement field135;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field136")
+    private WebElement field136;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field137")
+    private WebElement field137;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field138")
+    private WebElement field138;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field139")
+    private WebElement field139;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field140")
+    private WebElement field140;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field141")
+    private WebElement field141;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field142")
+    private WebElement field142;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field143")
+    private WebElement field143;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field144")
+    private WebElement field144;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field145")
+    private WebElement field145;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field146")
+    private WebElement field146;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field147")
+    private WebElement field147;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field148")
+    private WebElement field148;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field149")
+    private WebElement field149;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field150")
+    private WebElement field150;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field151")
+    private WebElement field151;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field152")
+    private WebElement field152;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field153")
+    private WebElement field153;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field154")
+    private WebElement field154;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field155")
+    private WebElement field155;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field156")
+    private WebElement field156;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field157")
+    private WebElement field157;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field158")
+    private WebElement field158;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field159")
+    private WebElement field159;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field160")
+    private WebElement field160;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field161")
+    private WebElement field161;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field162")
+    private WebElement field162;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field163")
+    private WebElement field163;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field164")
+    private WebElement field164;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field165")
+    private WebElement field165;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field166")
+    private WebElement field166;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field167")
+    private WebElement field167;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field168")
+    private WebElement field168;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field169")
+    private WebElement field169;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field170")
+    private WebElement field170;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field171")
+    private WebElement field171;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field172")
+    private WebElement field172;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field173")
+    private WebElement field173;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field174")
+    private WebElement field174;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field175")
+    private WebElement field175;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field176")
+    private WebElement field176;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field177")
+    private WebElement field177;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field178")
+    private WebElement field178;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field179")
+    private WebElement field179;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field180")
+    private WebElement field180;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field181")
+    private WebElement field181;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field182")
+    private WebElement field182;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field183")
+    private WebElement field183;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field184")
+    private WebElement field184;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field185")
+    private WebElement field185;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field186")
+    private WebElement field186;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field187")
+    private WebElement field187;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field188")
+    private WebElement field188;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field189")
+    private WebElement field189;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field190")
+    private WebElement field190;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field191")
+    private WebElement field191;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field192")
+    private WebElement field192;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field193")
+    private WebElement field193;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field194")
+    private WebElement field194;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field195")
+    private WebElement field195;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field196")
+    private WebElement field196;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field197")
+    private WebElement field197;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field198")
+    private WebElement field198;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field199")
+    private WebElement field199;
+
+    @AndroidFindBy(id = "io.selendroid.testapp:id/field200")
+    private WebElement field200;
+}
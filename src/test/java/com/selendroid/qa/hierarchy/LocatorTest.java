@@ -0,0 +1,70 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.enums.LocatorType;
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static com.selendroid.qa.hierarchy.SelendroidLocators.by;
+
+/**
+ * Extraction of {@link Locator} from plain and chained By, including the By the page factory
+ * builds for the SelendroidElements fields
+ *
+ * @author sanjay
+ *
+ */
+public class LocatorTest {
+
+    @Test
+    public void extractsPlainLocators() {
+        Assert.assertEquals(Locator.from(By.id("android:id/title")),
+                Optional.of(new Locator(LocatorType.ID, "android:id/title")));
+        Assert.assertEquals(Locator.from(MobileBy.AccessibilityId("buttonTestCD")),
+                Optional.of(new Locator(LocatorType.ACCESSIBILITYID, "buttonTestCD")));
+        Assert.assertEquals(Locator.from(By.className("android.widget.Button")),
+                Optional.of(new Locator(LocatorType.CLASSNAME, "android.widget.Button")));
+        Assert.assertEquals(Locator.from(By.xpath("//android.widget.Button[@text='EN Button']")),
+                Optional.of(new Locator(LocatorType.XPATH, "//android.widget.Button[@text='EN Button']")));
+    }
+
+    @Test
+    public void extractsSingleChainedLocators() {
+        Assert.assertEquals(Locator.from(new ByChained(By.id("name_input"))),
+                Optional.of(new Locator(LocatorType.ID, "name_input")));
+        Assert.assertEquals(Locator.from(new ByChained(By.xpath("(//a[@b='c, d'])[1]"))),
+                Optional.of(new Locator(LocatorType.XPATH, "(//a[@b='c, d'])[1]")));
+    }
+
+    @Test
+    public void rejectsUnsupportedLocators() {
+        Assert.assertFalse(Locator.from(null).isPresent());
+        Assert.assertFalse(Locator.from(By.cssSelector("#name_input")).isPresent());
+        Assert.assertFalse(Locator.from(new ByChained(By.id("content"), By.className("android.widget.Button"))).isPresent());
+    }
+
+    @Test
+    public void extractsLocatorsOfTheElementFields() {
+        Assert.assertEquals(Locator.from(by("title")),
+                Optional.of(new Locator(LocatorType.ID, "android:id/title")));
+        Assert.assertEquals(Locator.from(by("enBtn")),
+                Optional.of(new Locator(LocatorType.ACCESSIBILITYID, "buttonTestCD")));
+        Assert.assertEquals(Locator.from(by("webViewTxtBox")),
+                Optional.of(new Locator(LocatorType.XPATH, "//android.widget.EditText[@resource-id='name_input']")));
+        Assert.assertEquals(Locator.from(by("nameTxt")),
+                Optional.of(new Locator(LocatorType.XPATH,
+                        "(//android.view.View[@content-desc='Your name is:']/following-sibling::android.view.View)[1]")));
+    }
+
+    @Test
+    public void convertsBackToTheSameBy() {
+        for(String field: new String[] {"title", "enBtn", "webViewTxtBox"}) {
+            Locator locator = SelendroidLocators.locator(field);
+            Assert.assertEquals(Locator.from(locator.toBy()), Optional.of(locator), field);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.exception.FrameworkException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Page sources of the selendroid test app as UiAutomator2 reports them, kept under pagesource in
+ * the test resources
+ *
+ * @author sanjay
+ *
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PageSources {
+
+    public static final String HOME = "selendroid-home.xml";
+
+    public static final String WEB_VIEW = "selendroid-webview.xml";
+
+    public static final String WEB_VIEW_RESULT = "selendroid-webview-result.xml";
+
+    /**
+     * Read a page source from the test resources
+     * @param name - the file name e.g. {@link #HOME}
+     * @return the page source xml
+     */
+    public static String read(String name) {
+        try (InputStream input = PageSources.class.getClassLoader().getResourceAsStream("pagesource/" + name)) {
+            if(input == null) {
+                throw new FrameworkException("Missing page source " + name);
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+        } catch (IOException e) {
+            throw new FrameworkException(e);
+        }
+    }
+
+    /**
+     * Parse a page source from the test resources as an Android hierarchy
+     * @param name - the file name e.g. {@link #HOME}
+     * @return the parsed hierarchy
+     */
+    public static UiHierarchy parse(String name) {
+        return UiHierarchy.parse(read(name), false);
+    }
+}
@@ -0,0 +1,45 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.exception.FrameworkException;
+import com.selendroid.qa.screens.main.SelendroidElements;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.openqa.selenium.By;
+
+/**
+ * The By of the {@link SelendroidElements} fields as the page factory builds them for a
+ * UiAutomator2 session, so hierarchy lookups are tested with the locators the screens use
+ *
+ * @author sanjay
+ *
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SelendroidLocators {
+
+    /**
+     * Build the By of a field from its annotations
+     * @param field - the field name e.g. title
+     * @return the By of the field
+     */
+    public static By by(String field) {
+        try {
+            DefaultElementByBuilder byBuilder = new DefaultElementByBuilder("Android", "UiAutomator2");
+            byBuilder.setAnnotated(SelendroidElements.class.getDeclaredField(field));
+            return byBuilder.buildBy();
+
+        } catch (NoSuchFieldException e) {
+            throw new FrameworkException("No field " + field + " in " + SelendroidElements.class.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Extract the locator of a field
+     * @param field - the field name e.g. title
+     * @return the locator of the field
+     */
+    public static Locator locator(String field) {
+        return Locator.from(by(field))
+                .orElseThrow(() -> new FrameworkException("Unsupported locator for field " + field));
+    }
+}
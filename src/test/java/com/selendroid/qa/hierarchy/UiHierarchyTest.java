@@ -0,0 +1,148 @@
+package com.selendroid.qa.hierarchy;
+
+import com.selendroid.qa.enums.LocatorType;
+import com.selendroid.qa.enums.VerifyType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.Optional;
+
+import static com.selendroid.qa.hierarchy.SelendroidLocators.locator;
+
+/**
+ * Looks up the SelendroidElements locators in page sources of the selendroid test app, and
+ * compares evaluating xpath with the compiled expressions of {@link XPathCache} against
+ * compiling them for every lookup
+ *
+ * @author sanjay
+ *
+ */
+public class UiHierarchyTest {
+
+    private static final String[] HOME_FIELDS = {"title", "homeScreen", "enBtn", "browserBtn", "regBtn", "textBox",
+            "progressBarBtn", "checkBox", "dispTextBtn", "dispToastBtn", "popupBtn", "excptBtn", "textExcptn", "dispFcsBtn"};
+
+    private static final int LOOKUPS = 1000;
+
+    @Test
+    public void findsTheHomeScreenElements() {
+        UiHierarchy hierarchy = PageSources.parse(PageSources.HOME);
+
+        for(String field: HOME_FIELDS) {
+            Assert.assertEquals(hierarchy.findAll(locator(field)).size(), 1, field);
+        }
+        Assert.assertFalse(hierarchy.find(locator("noBtn")).isPresent());
+        Assert.assertEquals(hierarchy.findAll(new Locator(LocatorType.CLASSNAME, "android.widget.Button")).size(), 9);
+    }
+
+    @Test
+    public void findsIdsWithoutThePackagePrefix() {
+        UiHierarchy hierarchy = PageSources.parse(PageSources.HOME);
+
+        Element element = hierarchy.find(new Locator(LocatorType.ID, "buttonTest")).orElseThrow(AssertionError::new);
+        Assert.assertEquals(hierarchy.getValue(element, VerifyType.TEXT), "EN Button");
+    }
+
+    @Test
+    public void resolvesXpathLocators() {
+        UiHierarchy webView = PageSources.parse(PageSources.WEB_VIEW);
+        Assert.assertEquals(text(webView, "webViewHome"), "Web View Interaction");
+        Assert.assertEquals(webView.find(locator("webViewTxtBox")).map(element -> element.getAttribute("resource-id")),
+                Optional.of("name_input"));
+        Assert.assertFalse(webView.find(locator("mercedes")).isPresent());
+
+        UiHierarchy result = PageSources.parse(PageSources.WEB_VIEW_RESULT);
+        Assert.assertEquals(description(result, "nameTxt"), "Sanjay Singh");
+        Assert.assertEquals(description(result, "carTxt"), "mercedes");
+    }
+
+    @Test
+    public void findsNothingForInvalidXpath() {
+        UiHierarchy hierarchy = PageSources.parse(PageSources.HOME);
+
+        Assert.assertTrue(hierarchy.findAll(new Locator(LocatorType.XPATH, "//android.widget.Button[")).isEmpty());
+    }
+
+    @Test
+    public void prefersAUniqueResourceId() {
+        UiHierarchy hierarchy = PageSources.parse(PageSources.HOME);
+
+        Assert.assertEquals(uniqueLocator(hierarchy, "enBtn"),
+                Optional.of(new Locator(LocatorType.ID, "io.selendroid.testapp:id/buttonTest")));
+        Assert.assertEquals(uniqueLocator(hierarchy, "title"),
+                Optional.of(new Locator(LocatorType.ID, "android:id/title")));
+        Assert.assertEquals(uniqueLocator(hierarchy, "checkBox"),
+                Optional.of(new Locator(LocatorType.ID, "io.selendroid.testapp:id/input_adds_check_box")));
+    }
+
+    @Test
+    public void fallsBackToAUniqueAccessibilityId() {
+        UiHierarchy webView = PageSources.parse(PageSources.WEB_VIEW);
+        Assert.assertEquals(uniqueLocator(webView, "volvo"),
+                Optional.of(new Locator(LocatorType.ACCESSIBILITYID, "Volvo")));
+
+        UiHierarchy result = PageSources.parse(PageSources.WEB_VIEW_RESULT);
+        Assert.assertEquals(uniqueLocator(result, "nameTxt"),
+                Optional.of(new Locator(LocatorType.ACCESSIBILITYID, "Sanjay Singh")));
+    }
+
+    @Test
+    public void findsNoUniqueLocatorWithoutQualifiedIdOrAccessibilityId() {
+        UiHierarchy webView = PageSources.parse(PageSources.WEB_VIEW);
+
+        // webview ids are not resource ids UiAutomator2 resolves with By.id
+        Assert.assertFalse(uniqueLocator(webView, "webViewTxtBox").isPresent());
+        Assert.assertFalse(uniqueLocator(webView, "webViewHome").isPresent());
+    }
+
+    @Test
+    public void compiledXpathIsFasterThanCompilingEveryLookup() throws XPathExpressionException {
+        Document document = PageSources.parse(PageSources.WEB_VIEW_RESULT).getDocument();
+        String xpath = locator("nameTxt").getValue();
+
+        // warm up both paths before timing them
+        uncached(document, xpath, LOOKUPS);
+        cached(document, xpath, LOOKUPS);
+
+        long uncached = uncached(document, xpath, LOOKUPS);
+        long cached = cached(document, xpath, LOOKUPS);
+
+        Assert.assertTrue(cached < uncached,
+                "cached lookups took " + cached + " ns, compiling every lookup took " + uncached + " ns");
+    }
+
+    private static long uncached(Document document, String xpath, int lookups) throws XPathExpressionException {
+        long start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            XPathFactory.newInstance().newXPath().compile(xpath).evaluate(document, XPathConstants.NODESET);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long cached(Document document, String xpath, int lookups) throws XPathExpressionException {
+        long start = System.nanoTime();
+        for(int i = 0; i < lookups; i++) {
+            XPathCache.compile(xpath).evaluate(document, XPathConstants.NODESET);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Optional<Locator> uniqueLocator(UiHierarchy hierarchy, String field) {
+        return hierarchy.find(locator(field)).flatMap(hierarchy::toUniqueLocator);
+    }
+
+    private static String text(UiHierarchy hierarchy, String field) {
+        Element element = hierarchy.find(locator(field)).orElseThrow(() -> new AssertionError("No " + field));
+        return hierarchy.getValue(element, VerifyType.TEXT);
+    }
+
+    private static String description(UiHierarchy hierarchy, String field) {
+        return hierarchy.find(locator(field)).orElseThrow(() -> new AssertionError("No " + field))
+                .getAttribute("content-desc");
+    }
+}
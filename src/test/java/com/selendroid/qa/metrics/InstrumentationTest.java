@@ -0,0 +1,89 @@
+package com.selendroid.qa.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Prometheus text {@link Instrumentation#export} writes for action and HTTP command metrics
+ *
+ * @author sanjay
+ *
+ */
+public class InstrumentationTest {
+
+    private static final String JOURNEY = "com.selendroid.qa.screens.main.SelendroidJourney";
+
+    @Test
+    public void formatsActionsAsSummariesInSeconds() {
+        ActionMetrics click = new ActionMetrics(JOURNEY, "enBtn", "click");
+        click.record(2000000, 3000000, 5000000);
+
+        List<String> lines = lines(Instrumentation.toPrometheus(Collections.singletonList(click)));
+
+        String labels = "journey=\"" + JOURNEY + "\",component=\"enBtn\",action=\"click\"";
+        Assert.assertEquals(lines.get(0), "# HELP selendroid_action_duration_seconds Latency of component and gesture actions");
+        Assert.assertEquals(lines.get(1), "# TYPE selendroid_action_duration_seconds summary");
+        Assert.assertEquals(lines.subList(2, 7), Arrays.asList(
+                "selendroid_action_duration_seconds{" + labels + ",phase=\"wait\",quantile=\"0.5\"} 0.002",
+                "selendroid_action_duration_seconds{" + labels + ",phase=\"wait\",quantile=\"0.9\"} 0.002",
+                "selendroid_action_duration_seconds{" + labels + ",phase=\"wait\",quantile=\"0.99\"} 0.002",
+                "selendroid_action_duration_seconds_sum{" + labels + ",phase=\"wait\"} 0.002",
+                "selendroid_action_duration_seconds_count{" + labels + ",phase=\"wait\"} 1"));
+        Assert.assertTrue(lines.contains("selendroid_action_duration_seconds{" + labels + ",phase=\"round_trip\",quantile=\"0.5\"} 0.003"));
+        Assert.assertTrue(lines.contains("selendroid_action_duration_seconds_sum{" + labels + ",phase=\"total\"} 0.005"));
+        Assert.assertTrue(lines.contains("selendroid_action_duration_seconds_count{" + labels + ",phase=\"total\"} 1"));
+    }
+
+    @Test
+    public void escapesLabelValues() {
+        ActionMetrics metrics = new ActionMetrics(JOURNEY, "say \"hi\"\\", "type");
+        metrics.record(0, 0, 0);
+
+        String text = Instrumentation.toPrometheus(Collections.singletonList(metrics));
+
+        Assert.assertTrue(text.contains("component=\"say \\\"hi\\\"\\\\\""), text);
+    }
+
+    @Test
+    public void formatsCommandsAsSummariesAndCounters() {
+        CommandMetrics source = new CommandMetrics(JOURNEY, "GET /session/:sessionId/source");
+        source.record(10, 200, 200, 4000000);
+        source.record(0, 50, 500, 8000000);
+
+        List<String> lines = lines(Instrumentation.toPrometheusCommands(Collections.singletonList(source)));
+
+        String labels = "journey=\"" + JOURNEY + "\",command=\"GET /session/:sessionId/source\"";
+        double median = LatencyHistogram.upperBound(LatencyHistogram.index(4000000)) / 1e9;
+        Assert.assertEquals(lines, Arrays.asList(
+                "# HELP selendroid_http_command_duration_seconds Latency of the HTTP commands sent to the Appium server",
+                "# TYPE selendroid_http_command_duration_seconds summary",
+                "selendroid_http_command_duration_seconds{" + labels + ",quantile=\"0.5\"} " + median,
+                "selendroid_http_command_duration_seconds{" + labels + ",quantile=\"0.9\"} 0.008",
+                "selendroid_http_command_duration_seconds{" + labels + ",quantile=\"0.99\"} 0.008",
+                "selendroid_http_command_duration_seconds_sum{" + labels + "} 0.012",
+                "selendroid_http_command_duration_seconds_count{" + labels + "} 2",
+                "# HELP selendroid_http_command_request_bytes_total Request payload bytes",
+                "# TYPE selendroid_http_command_request_bytes_total counter",
+                "selendroid_http_command_request_bytes_total{" + labels + "} 10",
+                "# HELP selendroid_http_command_response_bytes_total Response payload bytes",
+                "# TYPE selendroid_http_command_response_bytes_total counter",
+                "selendroid_http_command_response_bytes_total{" + labels + "} 250",
+                "# HELP selendroid_http_command_errors_total Commands that failed or got an error status",
+                "# TYPE selendroid_http_command_errors_total counter",
+                "selendroid_http_command_errors_total{" + labels + "} 1"));
+    }
+
+    @Test
+    public void writesNothingWithoutCommands() {
+        Assert.assertEquals(Instrumentation.toPrometheusCommands(Collections.emptyList()), "");
+    }
+
+    private static List<String> lines(String text) {
+        Assert.assertTrue(text.endsWith("\n"), "the Prometheus text should end with a line feed");
+        return Arrays.asList(text.split("\n"));
+    }
+}
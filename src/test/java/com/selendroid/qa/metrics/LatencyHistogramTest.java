@@ -0,0 +1,154 @@
+package com.selendroid.qa.metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Bucket boundaries, percentile ranks and concurrent recording of {@link LatencyHistogram}
+ *
+ * @author sanjay
+ *
+ */
+public class LatencyHistogramTest {
+
+    private static final int THREADS = 8;
+
+    private static final int RECORDS = 10000;
+
+    @Test
+    public void smallValuesHaveTheirOwnBucket() {
+        for(long value = 0; value < 8; value++) {
+            Assert.assertEquals(LatencyHistogram.index(value), value);
+            Assert.assertEquals(LatencyHistogram.upperBound((int) value), value);
+        }
+    }
+
+    @Test
+    public void bucketsSplitEveryPowerOfTwo() {
+        Assert.assertEquals(LatencyHistogram.index(7), 7);
+        Assert.assertEquals(LatencyHistogram.index(8), 8);
+        Assert.assertEquals(LatencyHistogram.upperBound(8), 8);
+        Assert.assertEquals(LatencyHistogram.index(15), 15);
+        Assert.assertEquals(LatencyHistogram.upperBound(15), 15);
+
+        // from 16 on a bucket holds two values, then four and so on
+        Assert.assertEquals(LatencyHistogram.index(16), 16);
+        Assert.assertEquals(LatencyHistogram.index(17), 16);
+        Assert.assertEquals(LatencyHistogram.upperBound(16), 17);
+        Assert.assertEquals(LatencyHistogram.index(18), 17);
+    }
+
+    @Test
+    public void largestValueFitsTheLastBucket() {
+        int index = LatencyHistogram.index(Long.MAX_VALUE);
+
+        Assert.assertEquals(LatencyHistogram.upperBound(index), Long.MAX_VALUE);
+        Assert.assertEquals(LatencyHistogram.index(Long.MAX_VALUE - 1), index);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(histogram.getPercentile(99), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void upperBoundIsWithinAnEighthOfTheValue() {
+        Random random = new Random(17);
+        for(int i = 0; i < 100000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long upperBound = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+
+            Assert.assertTrue(upperBound >= value, "upper bound " + upperBound + " of " + value);
+            Assert.assertTrue(upperBound - value <= value / 8, "upper bound " + upperBound + " of " + value);
+        }
+    }
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assert.assertEquals(histogram.getPercentile(50), 0);
+        Assert.assertEquals(histogram.getMax(), 0);
+    }
+
+    @Test
+    public void percentileRanksOfSmallCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+
+        Assert.assertEquals(histogram.getPercentile(0), 1);
+        Assert.assertEquals(histogram.getPercentile(33), 1);
+        Assert.assertEquals(histogram.getPercentile(34), 2);
+        Assert.assertEquals(histogram.getPercentile(50), 2);
+        Assert.assertEquals(histogram.getPercentile(67), 3);
+        Assert.assertEquals(histogram.getPercentile(100), 3);
+    }
+
+    @Test
+    public void percentileNeverExceedsTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1000);
+
+        Assert.assertEquals(histogram.getPercentile(50), 10);
+        // 1000 shares its bucket with values up to 1023
+        Assert.assertEquals(histogram.getPercentile(51), 1000);
+        Assert.assertEquals(histogram.getPercentile(99), 1000);
+    }
+
+    @Test
+    public void negativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        Assert.assertEquals(histogram.getCount(), 1);
+        Assert.assertEquals(histogram.getSum(), 0);
+        Assert.assertEquals(histogram.getPercentile(50), 0);
+    }
+
+    @Test
+    public void recordsConcurrently() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for(int t = 0; t < THREADS; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for(int i = 1; i <= RECORDS; i++) {
+                    histogram.record(i + offset);
+                }
+            }, "recorder-" + t);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for(Thread thread: threads) {
+            thread.join(10000);
+        }
+
+        long sum = 0;
+        for(int t = 0; t < THREADS; t++) {
+            sum += (long) RECORDS * (RECORDS + 1) / 2 + (long) RECORDS * t;
+        }
+        Assert.assertEquals(histogram.getCount(), THREADS * RECORDS);
+        Assert.assertEquals(histogram.getSum(), sum);
+        Assert.assertEquals(histogram.getMax(), RECORDS + THREADS - 1);
+        Assert.assertEquals(histogram.getPercentile(100), RECORDS + THREADS - 1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,33 +4,44 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Keeps the report test of each worker thread. Every thread only sees its own test, so logging
+ * takes no shared lock. The test is cleared when it ends (or when the next one starts on a reused
+ * thread) so a pooled thread never logs into the test of a previous run. The report itself is
+ * rendered by the {@link ReportFlusher}
+ */
 public class ExtentTestManager {
 
-    static Map<Integer, ExtentTest> extentTestMap = new HashMap<Integer, ExtentTest>();
+    private static final ThreadLocal<ExtentTest> CURRENT_TEST = new ThreadLocal<>();
     static ExtentReports extent = ExtentManager.getInstance();
 
-    public static synchronized ExtentTest getTest() {
-        return (ExtentTest) extentTestMap.get((int) (long) (Thread.currentThread().getId()));
+    public static ExtentTest getTest() {
+        return CURRENT_TEST.get();
+    }
+
+    public static void endTest() {
+        CURRENT_TEST.remove();
+        ReportFlusher.markDirty();
     }
 
-    public static synchronized void endTest() {
-        extent.flush();
+    public static void clear() {
+        CURRENT_TEST.remove();
     }
 
-    public static synchronized ExtentTest startTest(String testName) {
+    public static ExtentTest startTest(String testName) {
         ExtentTest test = extent.createTest(testName);
-        extentTestMap.put((int) (long) (Thread.currentThread().getId()), test);
+        CURRENT_TEST.set(test);
+        ReportFlusher.markDirty();
         return test;
     }
 
-    public static synchronized void report(boolean result, String msgPass, String msgFail) {
+    public static void report(boolean result, String msgPass, String msgFail) {
+        ExtentTest test = getTest();
         if (result) {
-            getTest().log(Status.PASS, msgPass);
+            test.log(Status.PASS, msgPass);
         } else {
-            getTest().log(Status.FAIL, msgFail);
+            test.log(Status.FAIL, msgFail);
         }
+        ReportFlusher.markDirty();
     }
 }
@@ -3,18 +3,24 @@ package com.selendroid.qa.screens.main;
 import com.selendroid.qa.components.BaseJourney;
 import com.selendroid.qa.components.Component;
 import com.selendroid.qa.components.Elements;
+import com.selendroid.qa.components.SessionReset;
+import com.selendroid.qa.components.Verification;
+import com.selendroid.qa.enums.ResetType;
 import com.selendroid.qa.enums.VerifyType;
 import com.selendroid.qa.reporting.ExtentTestManager;
 import com.selendroid.qa.utils.Action;
-import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Map;
+
+import static com.selendroid.qa.screens.main.SelendroidElementsComponents.*;
 import static com.selendroid.qa.utils.TestUtil.hideKeyboard;
 import static com.selendroid.qa.appium.DriverWrapper.quitDriver;
 
 @Elements(elements = SelendroidElements.class)
+@SessionReset(ResetType.TERMINATE_ACTIVATE)
 public class SelendroidJourney extends BaseJourney {
 
     private final String titleText = "selendroid-test-app";
@@ -29,75 +35,77 @@ public class SelendroidJourney extends BaseJourney {
 
     @BeforeMethod
     public void beforeMethod() {
-        this.getDriver().launchApp();
+        this.resetApp();
     }
 
     @Test(priority = 1)
     public void verifyTitleAndElements() {
         ExtentTestManager.startTest("Verifying Title and Elements on Screen");
 
-        Component title = this.getComponent("title");
-        ExtentTestManager.report(title.verify(VerifyType.TEXT,titleText),
+        Map<String, Boolean> results = this.verifyAll(
+                Verification.of(TITLE, VerifyType.TEXT, titleText),
+                Verification.of(EN_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(BROWSER_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(REG_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(TEXT_BOX, VerifyType.DISPLAYED, "true"),
+                Verification.of(PROGRESS_BAR_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(CHECK_BOX, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_TEXT_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_TOAST_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(POPUP_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(EXCPT_BTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(TEXT_EXCPTN, VerifyType.DISPLAYED, "true"),
+                Verification.of(DISP_FCS_BTN, VerifyType.DISPLAYED, "true"));
+
+        ExtentTestManager.report(results.get(TITLE.getFieldName()),
                 "Title <b>"+ titleText +"</b> verified Successfully",
-                "Title verification failed Actual: "+ title.getText() +" Expected: " + titleText);
+                "Title verification failed Actual: "+ this.getComponent(TITLE).getText() +" Expected: " + titleText);
 
-        Component enBtn = this.getComponent("enBtn");
-        ExtentTestManager.report(enBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(EN_BTN.getFieldName()),
                 "Presence of <b>EN Button</b> verified Successfully",
                 "<b>EN Button</b> is not present");
 
-        Component browserBtn = this.getComponent("browserBtn");
-        ExtentTestManager.report(browserBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(BROWSER_BTN.getFieldName()),
                 "Presence of <b>Browser Button</b> verified Successfully",
                 "<b>Browser Button</b> is not present");
 
-        Component regBtn = this.getComponent("regBtn");
-        ExtentTestManager.report(regBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(REG_BTN.getFieldName()),
                 "Presence of <b>Registration Button</b> verified Successfully",
                 "<b>Registration Button</b> is not present");
 
-        Component textBox = this.getComponent("textBox");
-        ExtentTestManager.report(textBox.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(TEXT_BOX.getFieldName()),
                 "Presence of <b>TextBox</b> verified Successfully",
                 "<b>TextBox</b> is not present");
 
-        Component progressBarBtn = this.getComponent("progressBarBtn");
-        ExtentTestManager.report(progressBarBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(PROGRESS_BAR_BTN.getFieldName()),
                 "Presence of <b>Progress Bar Button</b> verified Successfully",
                 "<b>Progress Bar Button</b> is not present");
 
-        Component checkBox = this.getComponent("checkBox");
-        ExtentTestManager.report(checkBox.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(CHECK_BOX.getFieldName()),
                 "Presence of <b>CheckBox</b> verified Successfully",
                 "<b>CheckBox</b> is not present");
 
-        Component dispTextBtn = this.getComponent("dispTextBtn");
-        ExtentTestManager.report(dispTextBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(DISP_TEXT_BTN.getFieldName()),
                 "Presence of <b>Display Text Button</b> verified Successfully",
                 "<b>Display Text Button</b> is not present");
 
-        Component dispToastBtn = this.getComponent("dispToastBtn");
-        ExtentTestManager.report(dispToastBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(DISP_TOAST_BTN.getFieldName()),
                 "Presence of <b>Display Toast Button</b> verified Successfully",
                 "<b>Display Toast Button</b> is not present");
 
-        Component popupBtn = this.getComponent("popupBtn");
-        ExtentTestManager.report(popupBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(POPUP_BTN.getFieldName()),
                 "Presence of <b>Pop Up Button</b> verified Successfully",
                 "<b>Pop Up Button</b> is not present");
 
-        Component excptBtn = this.getComponent("excptBtn");
-        ExtentTestManager.report(excptBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(EXCPT_BTN.getFieldName()),
                 "Presence of <b>Exception Button</b> verified Successfully",
                 "<b>Exception Button</b> is not present");
 
-        Component textExcptn = this.getComponent("textExcptn");
-        ExtentTestManager.report(textExcptn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(TEXT_EXCPTN.getFieldName()),
                 "Presence of <b>Text Box for Exception</b> verified Successfully",
                 "<b>Text Box for Exception</b> is not present");
 
-        Component dispFcsBtn = this.getComponent("dispFcsBtn");
-        ExtentTestManager.report(dispFcsBtn.verify(VerifyType.DISPLAYED,  "true"),
+        ExtentTestManager.report(results.get(DISP_FCS_BTN.getFieldName()),
                 "Presence of <b>Display Focus Button</b> verified Successfully",
                 "<b>Display Focus Button</b> is not present");
 
@@ -108,15 +116,15 @@ public class SelendroidJourney extends BaseJourney {
     public void verifyHomeScreenNavigation() {
         ExtentTestManager.startTest("Verify homescreen after tapping no button");
 
-        Component enBtn = this.getComponent("enBtn");
+        Component enBtn = this.getComponent(EN_BTN);
         Action.click(enBtn,"ET Button clicked successfully",
                 "Unable to click ET Button");
 
-        Component noBtn = this.getComponent("noBtn");
+        Component noBtn = this.getComponent(NO_BTN);
         Action.click(noBtn,"No,no clicked successfully",
                 "Unable to click No,no");
 
-        Component homeScreen = this.getComponent("homeScreen");
+        Component homeScreen = this.getComponent(HOME_SCREEN);
         ExtentTestManager.report(homeScreen.verify(VerifyType.DISPLAYED,"true"),
                 "<b>Home Screen</b> navigated Successfully",
                 "Unable to navigate to <b>Home Screen</b>");
@@ -129,64 +137,64 @@ public class SelendroidJourney extends BaseJourney {
 
         ExtentTestManager.startTest("Verifying navigating through preferred car");
 
-        Component chromeBtn = this.getComponent("browserBtn");
+        Component chromeBtn = this.getComponent(BROWSER_BTN);
         Action.click(chromeBtn,"Chrome Button clicked successfully",
                 "Unable to click Chrome Button");
 
-        Component webViewHome = this.getComponent("webViewHome");
+        Component webViewHome = this.getComponent(WEB_VIEW_HOME);
         ExtentTestManager.report(webViewHome.verify(VerifyType.TEXT,  webViewTitle),
                 "Title <b>"+ webViewTitle +"</b> verified Successfully",
                 "Title verification failed Actual: "+ webViewHome.getText() +" Expected: " + webViewTitle);
 
-        Component webViewTxt = this.getComponent("webViewTxt");
+        Component webViewTxt = this.getComponent(WEB_VIEW_TXT);
         String actualHelloText = webViewTxt.getElement().getAttribute("content-desc");
         ExtentTestManager.report(helloText.equals(actualHelloText),
                 "Text <b>"+ helloText +"</b> verified successfully on Web View",
                 "Web View welcome text verification failed Actual: "+ actualHelloText
                         +" Expected: " + helloText);
 
-        Component webViewTxtBox = this.getComponent("webViewTxtBox");
+        Component webViewTxtBox = this.getComponent(WEB_VIEW_TXT_BOX);
         Action.enterText(webViewTxtBox, myName, "Name successfully inserted in TextBox",
                 "Unable to insert name in web view text box");
 
-        Component volvo = this.getComponent("volvo");
+        Component volvo = this.getComponent(VOLVO);
         Action.click(volvo,"Successfully clicked preferred car drop down",
                 "Unable to click on preferred car drop down");
 
-        Component mercedes = this.getComponent("mercedes");
+        Component mercedes = this.getComponent(MERCEDES);
         Action.click(mercedes,"Successfully selected <b>Mercedes</b> as preferred car",
                 "Unable to select <b>Mercedes</b> as preferred car");
 
-        Component sendNameBtn = this.getComponent("sendNameBtn");
+        Component sendNameBtn = this.getComponent(SEND_NAME_BTN);
         Action.click(sendNameBtn,"Successfully clicked <b>Send me your name</b>",
                 "Unable to click <b>Send me your name</b>");
 
-        Component successTxt = this.getComponent("successTxt");
+        Component successTxt = this.getComponent(SUCCESS_TXT);
         String actHelloSuccessTxt = successTxt.getElement().getAttribute("content-desc");
         ExtentTestManager.report(helloSuccessText.equals(actHelloSuccessTxt),
                 "Text <b>"+ helloSuccessText +"</b> verified Successfully on success screen",
                 "Success Text verification failed Actual: "+ actHelloSuccessTxt
                         +" Expected: " + helloSuccessText);
 
-        Component nameTxt = this.getComponent("nameTxt");
+        Component nameTxt = this.getComponent(NAME_TXT);
         String actualName = nameTxt.getElement().getAttribute("content-desc");
         ExtentTestManager.report(actualName.contains(myName),
                 "Name <b>"+ myName +"</b> verified Successfully",
                 "Name verification failed Actual: "+ actualName
                         +" Expected: " + myName);
 
-        Component carTxt = this.getComponent("carTxt");
+        Component carTxt = this.getComponent(CAR_TXT);
         String actualCarName = carTxt.getElement().getAttribute("content-desc");
         ExtentTestManager.report(actualCarName.contains(myCar),
                 "Car <b>"+ myCar +"</b> verified Successfully",
                 "Car verification failed Actual: "+ actualCarName
                         +" Expected: " + myCar);
 
-        Component clickHere = this.getComponent("clickHere");
+        Component clickHere = this.getComponent(CLICK_HERE);
         Action.click(clickHere,"Successfully clicked click here link",
                 "Unable to click on click here link");
 
-        volvo = this.getComponent("volvo");
+        volvo = this.getComponent(VOLVO);
         ExtentTestManager.report("Volvo".equals(volvo.getElement().getAttribute("content-desc")),
                 "Verify <b>Volvo</b> as selected car",
                 "Default car verification failed Actual: "+ volvo.getText()
@@ -200,67 +208,63 @@ public class SelendroidJourney extends BaseJourney {
     public void verifyRegisterUserScreen() {
         ExtentTestManager.startTest("Verifying Register User Screen");
 
-        Component regBtn = this.getComponent("regBtn");
+        Component regBtn = this.getComponent(REG_BTN);
         Action.click(regBtn,"Successfully clicked register user button",
                 "Unable to click on register user button");
 
-        Component regTitle = this.getComponent("regTitle");
+        Component regTitle = this.getComponent(REG_TITLE);
         ExtentTestManager.report(regTitle.verify(VerifyType.TEXT,welcomeTxt),
                 "Welcome Text <b>"+ welcomeTxt +"</b> verified Successfully",
                 "Welcome Text verification failed Actual: "+ regTitle.getText() +" Expected: " + welcomeTxt);
 
         hideKeyboard(this.getDriver());
+        this.snapshot();
 
-        Component dfltName = this.getComponent("dfltName");
+        Component dfltName = this.getComponent(DFLT_NAME);
         ExtentTestManager.report(dfltName.verify(VerifyType.TEXT,defaultName),
                 "Default pre-filled name <b>"+ defaultName +"</b> verified Successfully",
                 "Default pre-filled name verification failed Actual: "+ dfltName.getText() +" Expected: " + defaultName);
 
-        Component dflLang = this.getComponent("dflLang");
+        Component dflLang = this.getComponent(DFL_LANG);
         ExtentTestManager.report(dflLang.verify(VerifyType.TEXT,defaultLang),
                 "Default programming language as <b>"+ defaultLang +"</b> verified Successfully",
                 "Default programming language verification failed Actual: "+ dflLang.getText() +" Expected: " + defaultLang);
 
-        Component instUserName = this.getComponent("instUserName");
+        Component instUserName = this.getComponent(INST_USER_NAME);
         Action.enterText(instUserName, "sanjaysingh", "Username <bsanjaysingh</b> successfully inserted",
                 "Unable to insert username <b>sanjaysingh</b>");
 
         hideKeyboard(this.getDriver());
 
-        Component instEmail = this.getComponent("instEmail");
+        Component instEmail = this.getComponent(INST_EMAIL);
         Action.enterText(instEmail, "sanjaysingh@gmail.com", "email <bsanjaysingh@gmail.com</b> successfully inserted",
                 "Unable to insert email <b>sanjaysingh@gmail.com</b>");
 
         hideKeyboard(this.getDriver());
 
-        Component instPwd = this.getComponent("instPwd");
+        Component instPwd = this.getComponent(INST_PWD);
         Action.enterText(instPwd, "sanjaysingh", "password <bsanjaysingh</b> successfully inserted",
                 "Unable to insert password <b>sanjaysingh</b>");
 
         hideKeyboard(this.getDriver());
 
-        Component accptAdd = this.getComponent("accptAdd");
+        Component accptAdd = this.getComponent(ACCPT_ADD);
         Action.click(accptAdd, "CheckBox <b>Accept Adds</b> successfully  clicked",
                 "Unable to click checkbox <b>Accept Adds</b>");
 
-        Component regUser = this.getComponent("regUser");
+        Component regUser = this.getComponent(REG_USER);
         Action.click(regUser, "<b>Register User</b> Button clicked successfully",
                 "Unable to click <b>Register User</b> Button ");
 
-        Component fnlRegUser = this.getComponent("fnlRegUser");
+        Component fnlRegUser = this.getComponent(FNL_REG_USER);
         Action.click(fnlRegUser, "<b>Register User</b> Button on final screen clicked successfully",
                 "Unable to click <b>Register User</b> Button on final screen");
 
-        Component homeScreen = this.getComponent("homeScreen");
+        Component homeScreen = this.getComponent(HOME_SCREEN);
         ExtentTestManager.report(homeScreen.verify(VerifyType.DISPLAYED,"true"),
                 "<b>Home Screen</b> navigated Successfully",
                 "Unable to navigate to <b>Home Screen</b>");
 
         ExtentTestManager.endTest();
     }
-
-    @AfterMethod
-    public void afterMethod() {
-        this.getDriver().closeApp();
-    }
 }
@@ -2,18 +2,125 @@ package com.selendroid.qa.setup;
 
 
 
+import com.selendroid.qa.appium.DeviceScheduler;
+import com.selendroid.qa.appium.DriverWrapper;
+import com.selendroid.qa.metrics.Instrumentation;
 import com.selendroid.qa.reporting.ExtentManager;
+import com.selendroid.qa.reporting.EventLog;
 import com.selendroid.qa.reporting.ExtentTestManager;
+import com.selendroid.qa.reporting.ReportEvent;
+import com.selendroid.qa.reporting.ReportFlusher;
+import com.selendroid.qa.utils.ArtifactRoot;
+import com.selendroid.qa.utils.ScreenshotStore;
 import lombok.extern.log4j.Log4j2;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
+import org.testng.xml.XmlSuite;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.selendroid.qa.appium.DriverWrapper.quitAllDrivers;
 import static com.selendroid.qa.appium.DriverWrapper.quitDriver;
 
 
 @Log4j2
-public class ServiceHooks implements ITestListener {
+public class ServiceHooks implements ITestListener, ISuiteListener, IAlterSuiteListener {
+
+    private static final long SCREENSHOT_FLUSH_TIMEOUT_MILLIS = 30000;
+
+    private static volatile long suiteStartNanos = System.nanoTime();
+
+    private static final AtomicBoolean FIRST_TEST_STARTED = new AtomicBoolean();
+
+    /**
+     * Run one journey class per device: suites that run classes in parallel get one worker
+     * thread per device of the pool
+     * @param suites - the suites about to run
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = DriverWrapper.getParallelism();
+        for(XmlSuite suite: suites) {
+            if(XmlSuite.ParallelMode.CLASSES == suite.getParallel()) {
+                log.info("Running suite {} with {} worker threads", suite.getName(), threads);
+                suite.setThreadCount(threads);
+            }
+        }
+    }
+
+    public void onStart(ISuite suite) {
+        log.info("*** Suite " + suite.getName() + " started ***");
+        suiteStartNanos = System.nanoTime();
+        ReportFlusher.start();
+        DriverWrapper.warmUp(expectedSessions(suite));
+    }
+
+    /**
+     * Every journey class quits its session once it's done, so the suite needs one session per class
+     * @param suite - the suite
+     * @return the number of sessions the suite will ask for
+     */
+    private static int expectedSessions(ISuite suite) {
+        return (int) suite.getAllMethods().stream()
+                .map(ITestNGMethod::getRealClass)
+                .distinct()
+                .count();
+    }
+
+    public void onTestStart(ITestResult result) {
+        // worker threads are reused, never log into the test of a previous method
+        ExtentTestManager.clear();
+        if(FIRST_TEST_STARTED.compareAndSet(false, true)) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - suiteStartNanos);
+            String summary = millis + " ms (session warm pool " +
+                    (DriverWrapper.isWarmPoolEnabled() ? "enabled" : "disabled") + ")";
+            log.info("*** Time to first test " + summary + " ***");
+            ExtentManager.getInstance().setSystemInfo("Time to first test", summary);
+            ReportFlusher.markDirty();
+        }
+    }
+
+    public void onTestSuccess(ITestResult result) {
+        recordResult(result, "PASS");
+    }
+
+    public void onTestFailure(ITestResult result) {
+        recordResult(result, "FAIL");
+    }
+
+    public void onTestSkipped(ITestResult result) {
+        recordResult(result, "SKIP");
+    }
+
+    private static void recordResult(ITestResult result, String status) {
+        EventLog.record(ReportEvent.builder()
+                .timestamp(result.getEndMillis())
+                .thread(Thread.currentThread().getName())
+                .test(result.getTestClass().getName() + '.' + result.getMethod().getMethodName())
+                .action("finished")
+                .latencyMillis((double) (result.getEndMillis() - result.getStartMillis()))
+                .status(status)
+                .build(), true);
+    }
+
+    public void onFinish(ISuite suite) {
+        log.info("*** Suite " + suite.getName() + " ending, releasing all drivers ***");
+        quitAllDrivers();
+        DeviceScheduler.shutdownInstance();
+        ScreenshotStore.closeInstance(SCREENSHOT_FLUSH_TIMEOUT_MILLIS);
+        Instrumentation.export(ExtentManager.getInstance());
+        ArtifactRoot.closeInstance();
+        ReportFlusher.close();
+        EventLog.closeInstance();
+    }
 
     public void onStart(ITestContext context) {
         ExtentManager.getInstance();
@@ -22,7 +129,8 @@ public class ServiceHooks implements ITestListener {
 
     public void onFinish(ITestContext context) {
         log.info("*** Test Suite " + context.getName() + " ending ***");
-        ExtentManager.getInstance().flush();
+        ScreenshotStore.flushInstance(SCREENSHOT_FLUSH_TIMEOUT_MILLIS);
+        ReportFlusher.markDirty();
     }
 
     public void onFinishTest(ITestContext context) {
@@ -0,0 +1,49 @@
+package com.selendroid.qa.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Edge cases of the polling intervals of {@link PollingWait}
+ *
+ * @author sanjay
+ *
+ */
+public class PollingWaitTest {
+
+    private static PollingWait newWait(long fastPollMillis, double jitter) {
+        return PollingWait.builder()
+                .timeout(Duration.ofSeconds(5))
+                .fastPollInterval(Duration.ofMillis(fastPollMillis))
+                .fastPollDuration(Duration.ofMillis(0))
+                .maxPollInterval(Duration.ofMillis(100))
+                .backoffMultiplier(1.5)
+                .jitter(jitter)
+                .build();
+    }
+
+    @Test
+    public void zeroIntervalWithJitterPolls() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Boolean met = newWait(0, 0.2).until(null, driver -> attempts.incrementAndGet() >= 3);
+
+        Assert.assertTrue(met);
+        Assert.assertEquals(attempts.get(), 3);
+        Assert.assertEquals(newWait(0, 0.2).withJitter(0), 0);
+    }
+
+    @Test
+    public void oneMillisecondIntervalBacksOff() {
+        PollingWait wait = newWait(1, 0);
+
+        Assert.assertEquals(wait.nextInterval(0), 1);
+        Assert.assertEquals(wait.nextInterval(1), 2);
+        Assert.assertEquals(wait.nextInterval(2), 3);
+        Assert.assertEquals(wait.nextInterval(10), 15);
+        Assert.assertEquals(wait.nextInterval(90), 100);
+    }
+}
@@ -0,0 +1,77 @@
+package com.selendroid.qa.utils;
+
+import com.selendroid.qa.enums.OverflowPolicy;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Deduplication of {@link ScreenshotStore} when the {@link ScreenshotWriter} drops screenshots
+ *
+ * @author sanjay
+ *
+ */
+public class ScreenshotStoreTest {
+
+    private Path dir;
+
+    @BeforeClass
+    public void createRoot() throws IOException {
+        dir = Files.createTempDirectory("screenshot-store");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void droppedScreenshotIsWrittenByTheNextCapture() throws InterruptedException {
+        ArtifactRoot artifacts = new ArtifactRoot(dir, "drop-oldest", false);
+        ScreenshotWriter writer = new ScreenshotWriter(1, OverflowPolicy.DROP_OLDEST, artifacts);
+        ScreenshotStore store = new ScreenshotStore(artifacts, writer, 1, "png");
+
+        // hold the writer thread so the queue fills up
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit("blocker.png", new byte[0], bytes -> {
+            writing.countDown();
+            awaitQuietly(release);
+            return bytes;
+        });
+        Assert.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        byte[] first = "first".getBytes(StandardCharsets.UTF_8);
+        String dropped = store.store("first", first);
+        store.store("second", "second".getBytes(StandardCharsets.UTF_8));
+
+        release.countDown();
+        Assert.assertTrue(writer.flush(5000));
+        Path file = artifacts.getRunDirectory().resolve("screenshots").resolve(dropped + ".png");
+        Assert.assertFalse(Files.exists(file), "the dropped screenshot should not be written");
+
+        Assert.assertEquals(store.store("first again", first), dropped);
+        Assert.assertTrue(writer.flush(5000));
+        Assert.assertTrue(Files.exists(file), "the next identical capture should write the dropped screenshot");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
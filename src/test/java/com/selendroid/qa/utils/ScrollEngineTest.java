@@ -0,0 +1,98 @@
+package com.selendroid.qa.utils;
+
+import com.selendroid.qa.appium.DriverWrapper;
+import com.selendroid.qa.appium.StubAppiumServer;
+import com.selendroid.qa.enums.DirectionType;
+import com.selendroid.qa.enums.ResetType;
+import com.selendroid.qa.exception.FrameworkException;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+/**
+ * Scrolls to elements on a stub Appium server whose page source never changes, so every scroll
+ * reaches the end of the list after one swipe
+ *
+ * @author sanjay
+ *
+ */
+@SuppressWarnings("rawtypes")
+public class ScrollEngineTest {
+
+    private static final String DISPLAYED = "GET /session/:sessionId/element/:elementId/displayed";
+
+    private static final String WINDOW_RECT = "GET /session/:sessionId/window/rect";
+
+    private static final String ACTIONS = "POST /session/:sessionId/actions";
+
+    private StubAppiumServer server;
+
+    private AndroidDriver driver;
+
+    private WebElement element;
+
+    @BeforeClass
+    public void startSession() throws IOException {
+        server = new StubAppiumServer();
+
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability("platformName", "Android");
+        capabilities.setCapability("automationName", "UiAutomator2");
+        driver = new AndroidDriver(server.getUrl(), capabilities);
+        element = driver.findElement(By.id("io.selendroid.testapp:id/buttonTest"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        if(driver != null) {
+            driver.quit();
+        }
+        if(server != null) {
+            server.close();
+        }
+    }
+
+    @BeforeMethod
+    public void forgetRequests() {
+        ScrollEngine.invalidateWindowSize(driver);
+        server.respond(DISPLAYED, 200, "{\"value\":false}");
+        server.reset();
+    }
+
+    @Test
+    public void failsWhenTheElementIsNotDisplayedAtTheEndOfTheList() {
+        Assert.assertThrows(FrameworkException.class, () -> ActionUtil.scrollDownToElement(element, driver));
+        Assert.assertThrows(FrameworkException.class, () -> ActionUtil.scrollUpToElement(element, driver));
+        Assert.assertThrows(FrameworkException.class, () -> ActionUtil.scrollRightToElement(element, driver));
+
+        Assert.assertEquals(server.count(ACTIONS), 3, "requests " + server.getRequests());
+    }
+
+    @Test
+    public void scrollsUntilTheElementIsDisplayed() {
+        server.respond(DISPLAYED, 200, "{\"value\":true}");
+
+        ActionUtil.scrollDownToElement(element, driver);
+
+        Assert.assertEquals(server.count(ACTIONS), 0, "requests " + server.getRequests());
+    }
+
+    @Test
+    public void fetchesTheWindowSizeAgainAfterAnAppReset() {
+        ScrollEngine.swipe(DirectionType.DOWN, driver);
+        ScrollEngine.swipe(DirectionType.DOWN, driver);
+        Assert.assertEquals(server.count(WINDOW_RECT), 1, "requests " + server.getRequests());
+
+        DriverWrapper.resetApp(driver, ResetType.RELAUNCH, null);
+        ScrollEngine.swipe(DirectionType.DOWN, driver);
+        Assert.assertEquals(server.count(WINDOW_RECT), 2, "requests " + server.getRequests());
+    }
+}